@@ -0,0 +1,142 @@
+package com.zyy.tools.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 自适应分片大小
+ * 按每次调用的耗时调整下一片的大小（AIMD）：耗时不超过目标时加性增长，超过目标时乘性减小，
+ * 大小始终在 [minSize, maxSize] 之间。
+ * 调整后的大小可通过 {@link #getSectionSize()} 取出，下次执行同一查询时作为初始大小使用。
+ */
+public class AdaptiveSection {
+
+    /**
+     * 默认减小系数
+     */
+    private static final double DEFAULT_DECREASE_FACTOR = 0.5;
+
+    private final int minSize;
+
+    private final int maxSize;
+
+    private final long targetLatencyNanos;
+
+    private final int increaseStep;
+
+    private final double decreaseFactor;
+
+    private int sectionSize;
+
+    private long calls;
+
+    private long totalParams;
+
+    private long totalRows;
+
+    private long totalNanos;
+
+    private long lastLatencyNanos;
+
+    /**
+     * @param minSize             最小分片大小
+     * @param maxSize             最大分片大小
+     * @param initialSize         初始分片大小
+     * @param targetLatencyMillis 每次调用的目标耗时
+     */
+    public AdaptiveSection(int minSize, int maxSize, int initialSize, long targetLatencyMillis) {
+        this(minSize, maxSize, initialSize, targetLatencyMillis, Math.max(1, initialSize / 10), DEFAULT_DECREASE_FACTOR);
+    }
+
+    /**
+     * @param minSize             最小分片大小
+     * @param maxSize             最大分片大小
+     * @param initialSize         初始分片大小
+     * @param targetLatencyMillis 每次调用的目标耗时
+     * @param increaseStep        每次增长的个数
+     * @param decreaseFactor      每次减小的系数 (0, 1)
+     */
+    public AdaptiveSection(int minSize, int maxSize, int initialSize, long targetLatencyMillis,
+                           int increaseStep, double decreaseFactor) {
+        if (minSize < 1 || maxSize < minSize) {
+            throw new IllegalArgumentException("The minSize must be positive and not greater than maxSize");
+        }
+        if (targetLatencyMillis <= 0) {
+            throw new IllegalArgumentException("The targetLatencyMillis must be a positive integer");
+        }
+        if (increaseStep < 1) {
+            throw new IllegalArgumentException("The increaseStep must be a positive integer");
+        }
+        if (decreaseFactor <= 0 || decreaseFactor >= 1) {
+            throw new IllegalArgumentException("The decreaseFactor must be between 0 and 1");
+        }
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(targetLatencyMillis);
+        this.increaseStep = increaseStep;
+        this.decreaseFactor = decreaseFactor;
+        this.sectionSize = Math.max(minSize, Math.min(maxSize, initialSize));
+    }
+
+    /**
+     * 当前分片大小
+     */
+    public synchronized int getSectionSize() {
+        return sectionSize;
+    }
+
+    /**
+     * 记录一次调用并调整分片大小
+     *
+     * @param params       本次参数个数
+     * @param rows         本次返回的行数
+     * @param elapsedNanos 本次耗时
+     */
+    public synchronized void record(int params, int rows, long elapsedNanos) {
+        calls++;
+        totalParams += params;
+        totalRows += rows;
+        totalNanos += elapsedNanos;
+        lastLatencyNanos = elapsedNanos;
+        if (elapsedNanos > targetLatencyNanos) {
+            sectionSize = Math.max(minSize, (int) (Math.min(sectionSize, params) * decreaseFactor));
+        } else if (params >= sectionSize) {
+            // 不满一片（最后一片）的调用不作为增长依据
+            sectionSize = Math.min(maxSize, sectionSize + increaseStep);
+        }
+    }
+
+    public synchronized long getCalls() {
+        return calls;
+    }
+
+    /**
+     * 平均每次调用的返回行数
+     */
+    public synchronized double getAverageRows() {
+        return calls == 0 ? 0 : (double) totalRows / calls;
+    }
+
+    /**
+     * 平均每次调用的耗时（毫秒）
+     */
+    public synchronized double getAverageLatencyMillis() {
+        return calls == 0 ? 0 : totalNanos / 1e6 / calls;
+    }
+
+    /**
+     * 最近一次调用的耗时（毫秒）
+     */
+    public synchronized double getLastLatencyMillis() {
+        return lastLatencyNanos / 1e6;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "AdaptiveSection{sectionSize=" + sectionSize
+                + ", calls=" + calls
+                + ", params=" + totalParams
+                + ", avgRows=" + String.format("%.1f", getAverageRows())
+                + ", avgLatencyMillis=" + String.format("%.2f", getAverageLatencyMillis())
+                + '}';
+    }
+}
@@ -0,0 +1,278 @@
+package com.zyy.tools.util;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 合并请求的批量加载器
+ * 收集一个时间窗口内（或达到最大批量时）各线程请求的key，去重后通过
+ * {@link DataSectionUtils#dataSection(Function, List, int)} 分片查询，再按key把结果分发给各自的 CompletableFuture。
+ * 查不到的key返回null。已发出查询、尚未返回的key再次加载时共用同一个 CompletableFuture，不重复查询。
+ * 可选在前面加一层带过期时间和容量上限的结果缓存。
+ * 收集窗口由所有加载器共用的一个守护线程计时。
+ *
+ * @param <K> key类型
+ * @param <V> 结果类型
+ */
+public class BatchLoader<K, V> implements Closeable {
+
+    private static final int DEFAULT_SECTION = 1000;
+
+    private final Function<List<K>, List<V>> function;
+
+    private final Function<? super V, ? extends K> keyExtractor;
+
+    private final int sectionSize;
+
+    private final int maxBatchSize;
+
+    private final long windowMillis;
+
+    private final Executor executor;
+
+    private final ResultCache<K, V> cache;
+
+    private final Object lock = new Object();
+
+    private Map<K, CompletableFuture<V>> pending = new LinkedHashMap<>();
+
+    /**
+     * 已发出查询、尚未返回的key
+     */
+    private final Map<K, CompletableFuture<V>> inFlight = new HashMap<>();
+
+    private ScheduledFuture<?> scheduled;
+
+    /**
+     * @param function     批量查询方法
+     * @param keyExtractor 从结果中取key
+     * @param maxBatchSize 最大批量，达到后立即查询
+     * @param windowMillis 收集窗口毫秒数
+     */
+    public BatchLoader(Function<List<K>, List<V>> function, Function<? super V, ? extends K> keyExtractor,
+                       int maxBatchSize, long windowMillis) {
+        this(function, keyExtractor, DEFAULT_SECTION, maxBatchSize, windowMillis, null, null);
+    }
+
+    /**
+     * @param function     批量查询方法
+     * @param keyExtractor 从结果中取key
+     * @param sectionSize  每次查询的分片大小
+     * @param maxBatchSize 最大批量，达到后立即查询
+     * @param windowMillis 收集窗口毫秒数
+     * @param executor     执行查询的线程池，为null时使用内置线程池
+     * @param cache        结果缓存，为null时不缓存
+     */
+    public BatchLoader(Function<List<K>, List<V>> function, Function<? super V, ? extends K> keyExtractor,
+                       int sectionSize, int maxBatchSize, long windowMillis, Executor executor, ResultCache<K, V> cache) {
+        if (sectionSize < 1 || maxBatchSize < 1) {
+            throw new IllegalArgumentException("The sectionSize and maxBatchSize must be positive integers");
+        }
+        if (windowMillis < 0) {
+            throw new IllegalArgumentException("The windowMillis must be a positive integer or zero");
+        }
+        this.function = function;
+        this.keyExtractor = keyExtractor;
+        this.sectionSize = sectionSize;
+        this.maxBatchSize = maxBatchSize;
+        this.windowMillis = windowMillis;
+        this.executor = executor != null ? executor : DataSectionUtils.defaultExecutor();
+        this.cache = cache;
+    }
+
+    /**
+     * 加载单个key
+     *
+     * @param key key
+     * @return 结果，查不到时为null
+     */
+    public CompletableFuture<V> load(K key) {
+        if (cache != null) {
+            V cached = cache.get(key);
+            if (cached != null) {
+                return CompletableFuture.completedFuture(cached);
+            }
+        }
+        Map<K, CompletableFuture<V>> batch = null;
+        CompletableFuture<V> future;
+        synchronized (lock) {
+            future = pending.get(key);
+            if (future == null) {
+                future = inFlight.get(key);
+            }
+            if (future == null) {
+                future = new CompletableFuture<>();
+                pending.put(key, future);
+                if (pending.size() >= maxBatchSize) {
+                    batch = takePending();
+                } else if (scheduled == null) {
+                    scheduled = DataSectionUtils.defaultScheduler().schedule(this::flush, windowMillis, TimeUnit.MILLISECONDS);
+                }
+            }
+        }
+        if (batch != null) {
+            dispatch(batch);
+        }
+        return future;
+    }
+
+    /**
+     * 立即查询已收集的key
+     */
+    public void flush() {
+        Map<K, CompletableFuture<V>> batch;
+        synchronized (lock) {
+            batch = takePending();
+        }
+        if (!batch.isEmpty()) {
+            dispatch(batch);
+        }
+    }
+
+    /**
+     * 结果缓存，未设置时返回null
+     */
+    public ResultCache<K, V> getCache() {
+        return cache;
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+
+    private Map<K, CompletableFuture<V>> takePending() {
+        Map<K, CompletableFuture<V>> batch = pending;
+        pending = new LinkedHashMap<>();
+        inFlight.putAll(batch);
+        if (scheduled != null) {
+            scheduled.cancel(false);
+            scheduled = null;
+        }
+        return batch;
+    }
+
+    private void dispatch(Map<K, CompletableFuture<V>> batch) {
+        try {
+            executor.execute(() -> loadBatch(batch));
+        } catch (RuntimeException e) {
+            finish(batch);
+            batch.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    private void loadBatch(Map<K, CompletableFuture<V>> batch) {
+        Map<K, V> byKey;
+        try {
+            List<V> values = DataSectionUtils.dataSection(function, new ArrayList<>(batch.keySet()), sectionSize);
+            byKey = new HashMap<>(values.size() * 4 / 3 + 1);
+            for (V value : values) {
+                byKey.put(keyExtractor.apply(value), value);
+            }
+        } catch (Throwable e) {
+            finish(batch);
+            batch.values().forEach(future -> future.completeExceptionally(e));
+            return;
+        }
+        // 先写缓存再移出在途，之后的加载不会漏掉结果
+        if (cache != null) {
+            for (K key : batch.keySet()) {
+                V value = byKey.get(key);
+                if (value != null) {
+                    cache.put(key, value);
+                }
+            }
+        }
+        finish(batch);
+        for (Map.Entry<K, CompletableFuture<V>> entry : batch.entrySet()) {
+            entry.getValue().complete(byKey.get(entry.getKey()));
+        }
+    }
+
+    private void finish(Map<K, CompletableFuture<V>> batch) {
+        synchronized (lock) {
+            for (Map.Entry<K, CompletableFuture<V>> entry : batch.entrySet()) {
+                inFlight.remove(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * 带过期时间的LRU结果缓存，超过容量时淘汰最久未访问的key
+     *
+     * @param <K> key类型
+     * @param <V> 结果类型
+     */
+    public static class ResultCache<K, V> {
+
+        private final long ttlMillis;
+
+        private final LinkedHashMap<K, CacheEntry<V>> entries;
+
+        /**
+         * @param maxSize   最大条数
+         * @param ttlMillis 过期毫秒数
+         */
+        public ResultCache(int maxSize, long ttlMillis) {
+            if (maxSize < 1 || ttlMillis <= 0) {
+                throw new IllegalArgumentException("The maxSize and ttlMillis must be positive integers");
+            }
+            this.ttlMillis = ttlMillis;
+            this.entries = new LinkedHashMap<K, CacheEntry<V>>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, CacheEntry<V>> eldest) {
+                    return size() > maxSize;
+                }
+            };
+        }
+
+        public synchronized V get(K key) {
+            CacheEntry<V> entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expireAt - System.nanoTime() < 0) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.value;
+        }
+
+        public synchronized void put(K key, V value) {
+            entries.put(key, new CacheEntry<>(value, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ttlMillis)));
+        }
+
+        public synchronized void invalidate(K key) {
+            entries.remove(key);
+        }
+
+        public synchronized void clear() {
+            entries.clear();
+        }
+
+        public synchronized int size() {
+            return entries.size();
+        }
+
+        private static class CacheEntry<V> {
+            private final V value;
+            private final long expireAt;
+
+            CacheEntry(V value, long expireAt) {
+                this.value = value;
+                this.expireAt = expireAt;
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.zyy.tools.util;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 列式的Bean属性数据：所有行共用一个key数组，每行只保存一个值数组
+ */
+public class BeanColumns {
+
+    private final String[] keys;
+
+    private final List<Object[]> rows;
+
+    private final Map<String, Integer> indexByKey;
+
+    BeanColumns(String[] keys, List<Object[]> rows) {
+        this.keys = keys;
+        this.rows = rows;
+        this.indexByKey = new HashMap<>(BeanPlan.capacity(keys.length));
+        for (int i = 0; i < keys.length; i++) {
+            indexByKey.put(keys[i], i);
+        }
+    }
+
+    /**
+     * 列名
+     */
+    public List<String> getKeys() {
+        return Collections.unmodifiableList(Arrays.asList(keys));
+    }
+
+    /**
+     * 行数
+     */
+    public int size() {
+        return rows.size();
+    }
+
+    /**
+     * 列下标，不存在返回 -1
+     */
+    public int indexOf(String key) {
+        Integer index = indexByKey.get(key);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * 一行的值，顺序与 {@link #getKeys()} 一致
+     */
+    public Object[] getRow(int row) {
+        return rows.get(row);
+    }
+
+    public Object get(int row, String key) {
+        int index = indexOf(key);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unknown key: " + key);
+        }
+        return rows.get(row)[index];
+    }
+
+    /**
+     * 转为Map列表（值为null的列也会放入）
+     */
+    public List<Map<String, Object>> toMaps() {
+        return new AbstractList<Map<String, Object>>() {
+            @Override
+            public Map<String, Object> get(int index) {
+                Object[] values = rows.get(index);
+                Map<String, Object> map = new HashMap<>(BeanPlan.capacity(keys.length));
+                for (int i = 0; i < keys.length; i++) {
+                    map.put(keys[i], values[i]);
+                }
+                return map;
+            }
+
+            @Override
+            public int size() {
+                return rows.size();
+            }
+        };
+    }
+}
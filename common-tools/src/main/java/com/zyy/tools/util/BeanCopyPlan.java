@@ -0,0 +1,111 @@
+package com.zyy.tools.util;
+
+import cn.hutool.core.util.StrUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bean到Bean的预编译复制计划
+ * 属性匹配规则与 beanToMap + mapToBean 的往返转换一致：源属性key（原名或下划线）转驼峰后匹配目标属性。
+ * 每对（源类、目标类）只匹配一次。计划同时引用两个类，缓存在类加载器层级更低的一方的ClassValue中，
+ * 按另一方的类查找：子加载器（webapp、插件）的类不会被父加载器的类引用，可以随加载器卸载。
+ * 两个类的加载器互不为父子时不缓存，每次重新匹配。
+ */
+final class BeanCopyPlan {
+
+    /**
+     * 缓存在目标类上，按源类查找，源类的加载器是目标类的加载器或其父加载器
+     */
+    private static final ClassValue<Map<Class<?>, BeanCopyPlan[]>> BY_TARGET = new PlanMap();
+
+    /**
+     * 缓存在源类上，按目标类查找，目标类的加载器是源类的加载器的父加载器
+     */
+    private static final ClassValue<Map<Class<?>, BeanCopyPlan[]>> BY_SOURCE = new PlanMap();
+
+    private final BeanPlan targetPlan;
+
+    private final BeanPlan.Property[] from;
+
+    private final BeanPlan.Property[] to;
+
+    private BeanCopyPlan(Class<?> sourceType, Class<?> targetType, boolean isToUnderlineCase) {
+        this.targetPlan = BeanPlan.of(targetType);
+        List<BeanPlan.Property> fromList = new ArrayList<>();
+        List<BeanPlan.Property> toList = new ArrayList<>();
+        for (BeanPlan.Property source : BeanPlan.of(sourceType).readableProperties()) {
+            String key = isToUnderlineCase ? source.underlineName : source.name;
+            BeanPlan.Property target = targetPlan.property(StrUtil.toCamelCase(key));
+            if (target != null && target.setter != null) {
+                fromList.add(source);
+                toList.add(target);
+            }
+        }
+        this.from = fromList.toArray(new BeanPlan.Property[0]);
+        this.to = toList.toArray(new BeanPlan.Property[0]);
+    }
+
+    static BeanCopyPlan of(Class<?> sourceType, Class<?> targetType, boolean isToUnderlineCase) {
+        int index = isToUnderlineCase ? 1 : 0;
+        Map<Class<?>, BeanCopyPlan[]> byTarget = BY_TARGET.get(targetType);
+        BeanCopyPlan[] plans = byTarget.get(sourceType);
+        if (plans != null) {
+            return plans[index];
+        }
+        Map<Class<?>, BeanCopyPlan[]> bySource = BY_SOURCE.get(sourceType);
+        plans = bySource.get(targetType);
+        if (plans != null) {
+            return plans[index];
+        }
+        plans = new BeanCopyPlan[]{
+                new BeanCopyPlan(sourceType, targetType, false),
+                new BeanCopyPlan(sourceType, targetType, true)
+        };
+        if (isAncestor(sourceType.getClassLoader(), targetType.getClassLoader())) {
+            byTarget.putIfAbsent(sourceType, plans);
+        } else if (isAncestor(targetType.getClassLoader(), sourceType.getClassLoader())) {
+            bySource.putIfAbsent(targetType, plans);
+        }
+        return plans[index];
+    }
+
+    /**
+     * ancestor是否为loader本身或其父加载器，null为启动类加载器
+     */
+    private static boolean isAncestor(ClassLoader ancestor, ClassLoader loader) {
+        if (ancestor == null) {
+            return true;
+        }
+        for (ClassLoader l = loader; l != null; l = l.getParent()) {
+            if (l == ancestor) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    Object newTarget() {
+        return targetPlan.newInstance();
+    }
+
+    <T> T copy(Object source, T target, boolean ignoreNullValue) {
+        for (int i = 0; i < from.length; i++) {
+            Object value = from[i].get(source);
+            if (value == source) {
+                continue;
+            }
+            to[i].set(target, value, ignoreNullValue);
+        }
+        return target;
+    }
+
+    private static final class PlanMap extends ClassValue<Map<Class<?>, BeanCopyPlan[]>> {
+        @Override
+        protected Map<Class<?>, BeanCopyPlan[]> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>(4);
+        }
+    }
+}
@@ -3,22 +3,31 @@ package com.zyy.tools.util;
 import cn.hutool.core.bean.BeanUtil;
 import cn.hutool.core.bean.copier.CopyOptions;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * Map<->Bean互转
+ * 转换规则与hutool BeanUtil一致，每个类的属性访问器只生成一次（见 BeanPlan）
  *
  * @author wangyong01
  */
 public class BeanMapUtils {
 
+    /**
+     * 并行转换的最小条数，少于该条数时按顺序转换
+     */
+    private static final int PARALLEL_THRESHOLD = 2048;
+
     /**
      * 将对象属性转化为map集合
      * ignoreNullValue : 忽略null值
      */
     public static <T> Map<String, Object> beanToMap(T bean, boolean ignoreNullValue) {
-        return BeanUtil.beanToMap(bean, new HashMap<>(), false, ignoreNullValue);
+        return beanToMap(bean, false, ignoreNullValue);
     }
 
 
@@ -28,7 +37,34 @@ public class BeanMapUtils {
      * ignoreNullValue : 忽略null值
      */
     public static <T> Map<String, Object> beanToMap(T bean, boolean isToUnderlineCase, boolean ignoreNullValue) {
-        return BeanUtil.beanToMap(bean, new HashMap<>(), isToUnderlineCase, ignoreNullValue);
+        if (bean == null || bean instanceof Map) {
+            return BeanUtil.beanToMap(bean, new HashMap<>(), isToUnderlineCase, ignoreNullValue);
+        }
+        return BeanPlan.of(bean.getClass()).toMap(bean, isToUnderlineCase, ignoreNullValue);
+    }
+
+    /**
+     * 返回对象的Map视图，不复制属性，读取时直接调用getter；对象为null时返回null
+     * isToUnderlineCase：key转换为下划线格式
+     * ignoreNullValue : 忽略null值
+     */
+    public static <T> Map<String, Object> beanAsMap(T bean, boolean isToUnderlineCase, boolean ignoreNullValue) {
+        if (bean == null) {
+            return null;
+        }
+        return new BeanMapView(bean, isToUnderlineCase, ignoreNullValue, false);
+    }
+
+    /**
+     * 返回对象的Map视图，不复制属性
+     * writable : put是否直接写入对象属性
+     */
+    public static <T> Map<String, Object> beanAsMap(T bean, boolean isToUnderlineCase, boolean ignoreNullValue,
+                                                    boolean writable) {
+        if (bean == null) {
+            return null;
+        }
+        return new BeanMapView(bean, isToUnderlineCase, ignoreNullValue, writable);
     }
 
     /**
@@ -36,10 +72,162 @@ public class BeanMapUtils {
      * ignoreNullValue : 忽略null值
      */
     public static <T> T mapToBean(Map<String, Object> map, Class<T> clazz, boolean ignoreNullValue) {
-        CopyOptions copyOptions = CopyOptions.create();
-        copyOptions.setIgnoreNullValue(ignoreNullValue);
-        return BeanUtil.mapToBean(map, clazz, true, copyOptions);
+        if (Map.class.isAssignableFrom(clazz)) {
+            CopyOptions copyOptions = CopyOptions.create();
+            copyOptions.setIgnoreNullValue(ignoreNullValue);
+            return BeanUtil.mapToBean(map, clazz, true, copyOptions);
+        }
+        return BeanPlan.of(clazz).toBean(map, ignoreNullValue);
+    }
+
+    /**
+     * 批量将对象属性转化为map集合
+     * 同一个类只解析一次，每个map按属性个数预设容量
+     * isToUnderlineCase：key转换为下划线格式
+     * ignoreNullValue : 忽略null值
+     */
+    public static <T> List<Map<String, Object>> beansToMaps(List<T> beans, boolean isToUnderlineCase,
+                                                           boolean ignoreNullValue) {
+        List<Map<String, Object>> maps = new ArrayList<>(beans.size());
+        BeanPlan plan = null;
+        for (T bean : beans) {
+            if (bean == null || bean instanceof Map) {
+                maps.add(beanToMap(bean, isToUnderlineCase, ignoreNullValue));
+                continue;
+            }
+            if (plan == null || plan.getType() != bean.getClass()) {
+                plan = BeanPlan.of(bean.getClass());
+            }
+            maps.add(plan.toMap(bean, isToUnderlineCase, ignoreNullValue));
+        }
+        return maps;
+    }
+
+    /**
+     * 批量将对象属性转化为map集合
+     * parallel : 条数较多时并行转换，结果顺序不变
+     */
+    public static <T> List<Map<String, Object>> beansToMaps(List<T> beans, boolean isToUnderlineCase,
+                                                           boolean ignoreNullValue, boolean parallel) {
+        if (!parallel || beans.size() < PARALLEL_THRESHOLD) {
+            return beansToMaps(beans, isToUnderlineCase, ignoreNullValue);
+        }
+        return beans.parallelStream()
+                .map(bean -> beanToMap(bean, isToUnderlineCase, ignoreNullValue))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 批量将map集合中的数据转化为指定对象
+     * ignoreNullValue : 忽略null值
+     */
+    public static <T> List<T> mapsToBeans(List<Map<String, Object>> maps, Class<T> clazz, boolean ignoreNullValue) {
+        List<T> beans = new ArrayList<>(maps.size());
+        if (Map.class.isAssignableFrom(clazz)) {
+            for (Map<String, Object> map : maps) {
+                beans.add(mapToBean(map, clazz, ignoreNullValue));
+            }
+            return beans;
+        }
+        BeanPlan plan = BeanPlan.of(clazz);
+        for (Map<String, Object> map : maps) {
+            beans.add(plan.toBean(map, ignoreNullValue));
+        }
+        return beans;
+    }
+
+    /**
+     * 批量将map集合中的数据转化为指定对象
+     * parallel : 条数较多时并行转换，结果顺序不变
+     */
+    public static <T> List<T> mapsToBeans(List<Map<String, Object>> maps, Class<T> clazz, boolean ignoreNullValue,
+                                          boolean parallel) {
+        if (!parallel || maps.size() < PARALLEL_THRESHOLD) {
+            return mapsToBeans(maps, clazz, ignoreNullValue);
+        }
+        return maps.parallelStream()
+                .map(map -> mapToBean(map, clazz, ignoreNullValue))
+                .collect(Collectors.toList());
     }
 
+    /**
+     * 批量将同一类型对象的属性转为列式数据，所有行共用一个key数组
+     * 行与beans一一对应，beans中不能有null
+     * isToUnderlineCase：key转换为下划线格式
+     */
+    public static <T> BeanColumns beansToColumns(List<T> beans, Class<T> clazz, boolean isToUnderlineCase) {
+        BeanPlan plan = BeanPlan.of(clazz);
+        BeanPlan.Property[] properties = plan.readableProperties();
+        String[] keys = new String[properties.length];
+        for (int i = 0; i < properties.length; i++) {
+            keys[i] = isToUnderlineCase ? properties[i].underlineName : properties[i].name;
+        }
+        List<Object[]> rows = new ArrayList<>(beans.size());
+        for (T bean : beans) {
+            if (bean == null) {
+                throw new IllegalArgumentException("The beans must not contain null, found at index " + rows.size());
+            }
+            if (bean.getClass() != clazz) {
+                throw new IllegalArgumentException("Expected " + clazz.getName() + " but was " + bean.getClass().getName());
+            }
+            Object[] values = new Object[properties.length];
+            for (int i = 0; i < properties.length; i++) {
+                values[i] = properties[i].get(bean);
+            }
+            rows.add(values);
+        }
+        return new BeanColumns(keys, rows);
+    }
+
+    /**
+     * 对象属性复制到新的目标对象，不经过中间map
+     * 结果与 mapToBean(beanToMap(source, isToUnderlineCase, ignoreNullValue), clazz, ignoreNullValue) 一致
+     * isToUnderlineCase：按下划线格式的key匹配目标属性
+     * ignoreNullValue : 忽略null值
+     */
+    @SuppressWarnings("unchecked")
+    public static <S, T> T copyProperties(S source, Class<T> clazz, boolean isToUnderlineCase, boolean ignoreNullValue) {
+        if (source == null) {
+            return null;
+        }
+        BeanCopyPlan plan = BeanCopyPlan.of(source.getClass(), clazz, isToUnderlineCase);
+        return plan.copy(source, (T) plan.newTarget(), ignoreNullValue);
+    }
+
+    /**
+     * 对象属性复制到已有的目标对象，source为null时不复制，原样返回target
+     * ignoreNullValue : 忽略null值，为true时源属性为null不覆盖目标属性
+     */
+    public static <S, T> T copyProperties(S source, T target, boolean ignoreNullValue) {
+        if (source == null) {
+            return target;
+        }
+        return BeanCopyPlan.of(source.getClass(), target.getClass(), false).copy(source, target, ignoreNullValue);
+    }
+
+    /**
+     * 批量复制对象属性，同一对类型只匹配一次
+     * isToUnderlineCase：按下划线格式的key匹配目标属性
+     * ignoreNullValue : 忽略null值
+     */
+    @SuppressWarnings("unchecked")
+    public static <S, T> List<T> copyList(List<S> sources, Class<T> clazz, boolean isToUnderlineCase,
+                                          boolean ignoreNullValue) {
+        List<T> targets = new ArrayList<>(sources.size());
+        BeanCopyPlan plan = null;
+        Class<?> sourceType = null;
+        for (S source : sources) {
+            if (source == null) {
+                targets.add(null);
+                continue;
+            }
+            if (source.getClass() != sourceType) {
+                sourceType = source.getClass();
+                plan = BeanCopyPlan.of(sourceType, clazz, isToUnderlineCase);
+            }
+            targets.add(plan.copy(source, (T) plan.newTarget(), ignoreNullValue));
+        }
+        return targets;
+    }
 
-}
\ No newline at end of file
+}
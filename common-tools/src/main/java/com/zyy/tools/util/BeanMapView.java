@@ -0,0 +1,210 @@
+package com.zyy.tools.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Bean的Map视图，不复制属性
+ * 读取时直接调用getter，可写视图的put直接调用setter；key规则与 BeanMapUtils.beanToMap 一致，
+ * 值为对象自身引用的属性不出现在视图中。
+ * entrySet每次迭代创建一个Entry，遍历不需要保存Entry时用 {@link #forEach(BiConsumer)}，不分配对象。
+ */
+public class BeanMapView extends AbstractMap<String, Object> {
+
+    private final Object bean;
+
+    private final BeanPlan plan;
+
+    private final BeanPlan.Property[] properties;
+
+    private final String[] keys;
+
+    private final boolean isToUnderlineCase;
+
+    private final boolean ignoreNullValue;
+
+    private final boolean writable;
+
+    /**
+     * 是否有属性可能返回对象自身，没有时不忽略null的视图大小固定
+     */
+    private final boolean mayReferToSelf;
+
+    private Set<Map.Entry<String, Object>> entrySet;
+
+    BeanMapView(Object bean, boolean isToUnderlineCase, boolean ignoreNullValue, boolean writable) {
+        this.bean = bean;
+        this.plan = BeanPlan.of(bean.getClass());
+        this.properties = plan.readableProperties();
+        this.keys = plan.readableKeys(isToUnderlineCase);
+        this.isToUnderlineCase = isToUnderlineCase;
+        this.ignoreNullValue = ignoreNullValue;
+        this.writable = writable;
+        boolean mayReferToSelf = false;
+        for (BeanPlan.Property property : properties) {
+            mayReferToSelf |= property.rawType.isAssignableFrom(bean.getClass());
+        }
+        this.mayReferToSelf = mayReferToSelf;
+    }
+
+    /**
+     * 被包装的对象
+     */
+    public Object getBean() {
+        return bean;
+    }
+
+    @Override
+    public Object get(Object key) {
+        int index = plan.readableIndex(key, isToUnderlineCase);
+        if (index < 0) {
+            return null;
+        }
+        Object value = properties[index].get(bean);
+        return value == bean ? null : value;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        int index = plan.readableIndex(key, isToUnderlineCase);
+        return index >= 0 && present(properties[index].get(bean));
+    }
+
+    @Override
+    public int size() {
+        if (!ignoreNullValue && !mayReferToSelf) {
+            return properties.length;
+        }
+        int size = 0;
+        for (BeanPlan.Property property : properties) {
+            if (present(property.get(bean))) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * 写入属性，值按hutool Convert转换为属性类型
+     *
+     * @return 原来的值
+     */
+    @Override
+    public Object put(String key, Object value) {
+        if (!writable) {
+            throw new UnsupportedOperationException("The view is read only");
+        }
+        int index = plan.readableIndex(key, isToUnderlineCase);
+        if (index < 0 || properties[index].setter == null) {
+            throw new IllegalArgumentException("No writable property for key: " + key);
+        }
+        Object old = get(key);
+        properties[index].set(bean, value, false);
+        return old;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        throw new UnsupportedOperationException("Can not remove a property of bean");
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException("Can not remove a property of bean");
+    }
+
+    /**
+     * 遍历，不分配对象
+     */
+    @Override
+    public void forEach(BiConsumer<? super String, ? super Object> action) {
+        for (int i = 0; i < properties.length; i++) {
+            Object value = properties[i].get(bean);
+            if (present(value)) {
+                action.accept(keys[i], value);
+            }
+        }
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new AbstractSet<Map.Entry<String, Object>>() {
+                @Override
+                public Iterator<Map.Entry<String, Object>> iterator() {
+                    return new EntryIterator();
+                }
+
+                @Override
+                public int size() {
+                    return BeanMapView.this.size();
+                }
+            };
+        }
+        return entrySet;
+    }
+
+    /**
+     * 与beanToMap一致：不输出对象自身的引用，ignoreNullValue时不输出null
+     */
+    private boolean present(Object value) {
+        return value != bean && (value != null || !ignoreNullValue);
+    }
+
+    private class EntryIterator implements Iterator<Map.Entry<String, Object>> {
+        private int next = -1;
+        private Object nextValue;
+
+        EntryIterator() {
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < properties.length;
+        }
+
+        @Override
+        public Map.Entry<String, Object> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Map.Entry<String, Object> entry = new PropertyEntry(keys[next], nextValue);
+            advance();
+            return entry;
+        }
+
+        private void advance() {
+            for (next++; next < properties.length; next++) {
+                nextValue = properties[next].get(bean);
+                if (present(nextValue)) {
+                    return;
+                }
+            }
+            nextValue = null;
+        }
+    }
+
+    /**
+     * 保存读取时的值，setValue写入对象属性
+     */
+    private class PropertyEntry extends SimpleEntry<String, Object> {
+        private static final long serialVersionUID = 1L;
+
+        PropertyEntry(String key, Object value) {
+            super(key, value);
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            Object old = put(getKey(), value);
+            super.setValue(get(getKey()));
+            return old;
+        }
+    }
+}
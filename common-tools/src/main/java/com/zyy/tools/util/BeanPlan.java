@@ -0,0 +1,391 @@
+package com.zyy.tools.util;
+
+import cn.hutool.core.bean.BeanUtil;
+import cn.hutool.core.bean.PropDesc;
+import cn.hutool.core.convert.Convert;
+import cn.hutool.core.util.ClassUtil;
+import cn.hutool.core.util.ReflectUtil;
+import cn.hutool.core.util.StrUtil;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Bean与Map互转的预编译计划
+ * 每个类只解析一次属性（属性规则与hutool BeanUtil一致），getter/setter通过LambdaMetafactory生成，
+ * 无法生成时（非public类、其他类加载器加载的类、public字段）退回MethodHandle。
+ * 计划缓存在ClassValue中，随类一起卸载。
+ */
+final class BeanPlan {
+
+    private static final ClassValue<BeanPlan> PLANS = new ClassValue<BeanPlan>() {
+        @Override
+        protected BeanPlan computeValue(Class<?> type) {
+            return new BeanPlan(type);
+        }
+    };
+
+    /**
+     * key -> 属性下标的缓存上限，防止任意key撑大缓存
+     */
+    private static final int MAX_CACHED_KEYS = 1024;
+
+    private final Class<?> type;
+
+    private final Property[] properties;
+
+    /**
+     * 可读的属性
+     */
+    private final Property[] readable;
+
+    private final Map<String, Integer> indexByName;
+
+    /**
+     * 可读属性的key（原名/下划线），及key到可读属性下标的映射
+     */
+    private final String[] readableNames;
+
+    private final String[] readableUnderlineNames;
+
+    private final Map<String, Integer> readableIndexByName;
+
+    private final Map<String, Integer> readableIndexByUnderlineName;
+
+    private final Map<String, Integer> indexByKey = new ConcurrentHashMap<>();
+
+    private final Supplier<Object> constructor;
+
+    private BeanPlan(Class<?> type) {
+        this.type = type;
+        Collection<PropDesc> props = BeanUtil.getBeanDesc(type).getProps();
+        this.properties = new Property[props.size()];
+        this.indexByName = new HashMap<>(props.size() * 4 / 3 + 1);
+        int i = 0;
+        int readableCount = 0;
+        for (PropDesc prop : props) {
+            Property property = new Property(prop);
+            properties[i] = property;
+            indexByName.put(property.name, i);
+            if (property.getter != null) {
+                readableCount++;
+            }
+            i++;
+        }
+        this.readable = new Property[readableCount];
+        this.readableNames = new String[readableCount];
+        this.readableUnderlineNames = new String[readableCount];
+        this.readableIndexByName = new HashMap<>(capacity(readableCount));
+        this.readableIndexByUnderlineName = new HashMap<>(capacity(readableCount));
+        int r = 0;
+        for (Property property : properties) {
+            if (property.getter != null) {
+                readable[r] = property;
+                readableNames[r] = property.name;
+                readableUnderlineNames[r] = property.underlineName;
+                readableIndexByName.put(property.name, r);
+                readableIndexByUnderlineName.put(property.underlineName, r);
+                r++;
+            }
+        }
+        this.constructor = constructor(type);
+    }
+
+    static BeanPlan of(Class<?> type) {
+        return PLANS.get(type);
+    }
+
+    Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * 全部属性
+     */
+    Property[] properties() {
+        return properties;
+    }
+
+    /**
+     * 可读的属性
+     */
+    Property[] readableProperties() {
+        return readable;
+    }
+
+    /**
+     * 可读属性的key，与 {@link #readableProperties()} 下标一致
+     */
+    String[] readableKeys(boolean isToUnderlineCase) {
+        return isToUnderlineCase ? readableUnderlineNames : readableNames;
+    }
+
+    /**
+     * key对应的可读属性下标，不存在返回 -1
+     */
+    int readableIndex(Object key, boolean isToUnderlineCase) {
+        Integer index = (isToUnderlineCase ? readableIndexByUnderlineName : readableIndexByName).get(key);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * 按属性名取属性，不存在返回null
+     */
+    Property property(String name) {
+        Integer index = indexByName.get(name);
+        return index == null ? null : properties[index];
+    }
+
+    /**
+     * Bean转Map，结果与 BeanUtil.beanToMap 一致
+     */
+    Map<String, Object> toMap(Object bean, boolean isToUnderlineCase, boolean ignoreNullValue) {
+        Map<String, Object> map = new HashMap<>(capacity(readable.length));
+        writeTo(bean, map, isToUnderlineCase, ignoreNullValue);
+        return map;
+    }
+
+    void writeTo(Object bean, Map<String, Object> map, boolean isToUnderlineCase, boolean ignoreNullValue) {
+        for (Property property : readable) {
+            Object value = property.get(bean);
+            if ((value == null && ignoreNullValue) || value == bean) {
+                continue;
+            }
+            map.put(isToUnderlineCase ? property.underlineName : property.name, value);
+        }
+    }
+
+    /**
+     * Map转Bean，key转为驼峰后匹配属性，结果与 BeanUtil.mapToBean(map, clazz, true, copyOptions) 一致
+     */
+    @SuppressWarnings("unchecked")
+    <T> T toBean(Map<String, ?> map, boolean ignoreNullValue) {
+        T bean = (T) newInstance();
+        if (map == null) {
+            return bean;
+        }
+        for (Map.Entry<String, ?> entry : map.entrySet()) {
+            if (entry.getKey() == null) {
+                continue;
+            }
+            Property property = propertyOfKey(entry.getKey());
+            if (property != null && property.setter != null) {
+                property.set(bean, entry.getValue(), ignoreNullValue);
+            }
+        }
+        return bean;
+    }
+
+    Object newInstance() {
+        return constructor.get();
+    }
+
+    /**
+     * Map的key转驼峰后按属性名匹配属性
+     */
+    private Property propertyOfKey(String key) {
+        Integer index = indexByKey.get(key);
+        if (index == null) {
+            index = indexByName.get(StrUtil.toCamelCase(key));
+            if (index == null) {
+                index = -1;
+            }
+            if (indexByKey.size() < MAX_CACHED_KEYS) {
+                indexByKey.put(key, index);
+            }
+        }
+        return index < 0 ? null : properties[index];
+    }
+
+    static int capacity(int size) {
+        return (int) (size / 0.75f) + 1;
+    }
+
+    /**
+     * 单个属性的访问器
+     */
+    static final class Property {
+        final String name;
+        final String underlineName;
+        final Type genericType;
+        final Class<?> rawType;
+        /**
+         * 原始类型对应的包装类型
+         */
+        final Class<?> boxedType;
+        final Function<Object, Object> getter;
+        final BiConsumer<Object, Object> setter;
+
+        Property(PropDesc prop) {
+            this.name = prop.getFieldName();
+            this.underlineName = StrUtil.toUnderlineCase(name);
+            this.genericType = prop.getFieldType();
+            this.rawType = prop.getFieldClass();
+            this.boxedType = rawType.isPrimitive() ? ClassUtil.getDefaultValue(rawType).getClass() : rawType;
+            this.getter = prop.isReadable(true) ? getter(prop) : null;
+            this.setter = prop.isWritable(true) ? setter(prop) : null;
+        }
+
+        Object get(Object bean) {
+            return getter.apply(bean);
+        }
+
+        /**
+         * 写入属性，类型不匹配时按hutool Convert转换
+         */
+        void set(Object bean, Object value, boolean ignoreNullValue) {
+            if (value == null) {
+                if (ignoreNullValue) {
+                    return;
+                }
+                setter.accept(bean, rawType.isPrimitive() ? ClassUtil.getDefaultValue(rawType) : null);
+                return;
+            }
+            if (!(genericType instanceof Class) || !boxedType.isInstance(value)) {
+                value = Convert.convertWithCheck(genericType, value, null, false);
+                if (value == null) {
+                    if (ignoreNullValue) {
+                        return;
+                    }
+                    value = rawType.isPrimitive() ? ClassUtil.getDefaultValue(rawType) : null;
+                }
+            }
+            setter.accept(bean, value);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> getter(PropDesc prop) {
+        Method method = prop.getGetter();
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            if (method != null && lambdaAccessible(method)) {
+                MethodHandle target = lookup.unreflect(method);
+                CallSite site = LambdaMetafactory.metafactory(lookup, "apply", MethodType.methodType(Function.class),
+                        MethodType.methodType(Object.class, Object.class), target, target.type().wrap());
+                return (Function<Object, Object>) site.getTarget().invokeExact();
+            }
+            MethodHandle handle;
+            if (method != null) {
+                method.setAccessible(true);
+                handle = lookup.unreflect(method);
+            } else {
+                Field field = prop.getField();
+                field.setAccessible(true);
+                handle = lookup.unreflectGetter(field);
+            }
+            MethodHandle generic = handle.asType(MethodType.methodType(Object.class, Object.class));
+            return bean -> {
+                try {
+                    return generic.invokeExact(bean);
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new IllegalStateException(e);
+                }
+            };
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Can not access property " + prop.getFieldName(), e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> setter(PropDesc prop) {
+        Method method = prop.getSetter();
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            if (method != null && lambdaAccessible(method)) {
+                MethodHandle target = lookup.unreflect(method);
+                Class<?> parameterType = method.getParameterTypes()[0];
+                Class<?> boxed = parameterType.isPrimitive()
+                        ? ClassUtil.getDefaultValue(parameterType).getClass() : parameterType;
+                CallSite site = LambdaMetafactory.metafactory(lookup, "accept", MethodType.methodType(BiConsumer.class),
+                        MethodType.methodType(void.class, Object.class, Object.class), target,
+                        MethodType.methodType(void.class, method.getDeclaringClass(), boxed));
+                return (BiConsumer<Object, Object>) site.getTarget().invokeExact();
+            }
+            MethodHandle handle;
+            if (method != null) {
+                method.setAccessible(true);
+                handle = lookup.unreflect(method);
+            } else {
+                Field field = prop.getField();
+                field.setAccessible(true);
+                handle = lookup.unreflectSetter(field);
+            }
+            MethodHandle generic = handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+            return (bean, value) -> {
+                try {
+                    generic.invokeExact(bean, value);
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new IllegalStateException(e);
+                }
+            };
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Can not access property " + prop.getFieldName(), e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Supplier<Object> constructor(Class<?> type) {
+        try {
+            Constructor<?> constructor = type.getDeclaredConstructor();
+            if (Modifier.isPublic(constructor.getModifiers()) && !Modifier.isAbstract(type.getModifiers())
+                    && lambdaAccessible(type)) {
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                MethodHandle target = lookup.unreflectConstructor(constructor);
+                CallSite site = LambdaMetafactory.metafactory(lookup, "get", MethodType.methodType(Supplier.class),
+                        MethodType.methodType(Object.class), target, MethodType.methodType(type));
+                return (Supplier<Object>) site.getTarget().invokeExact();
+            }
+        } catch (NoSuchMethodException e) {
+            // 没有无参构造方法，由hutool尝试构造
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Can not create constructor of " + type.getName(), e);
+        }
+        return () -> ReflectUtil.newInstanceIfPossible(type);
+    }
+
+    /**
+     * 生成的lambda类与本类同一类加载器，只能访问本类可见的public类的public方法
+     */
+    private static boolean lambdaAccessible(Method method) {
+        return Modifier.isPublic(method.getModifiers()) && lambdaAccessible(method.getDeclaringClass());
+    }
+
+    private static boolean lambdaAccessible(Class<?> type) {
+        for (Class<?> c = type; c != null; c = c.getEnclosingClass()) {
+            if (!Modifier.isPublic(c.getModifiers())) {
+                return false;
+            }
+        }
+        try {
+            return Class.forName(type.getName(), false, BeanPlan.class.getClassLoader()) == type;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+}
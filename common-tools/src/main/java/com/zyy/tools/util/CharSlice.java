@@ -0,0 +1,45 @@
+package com.zyy.tools.util;
+
+/**
+ * 字符序列的只读视图，不复制底层字符
+ */
+final class CharSlice implements CharSequence {
+
+    private final CharSequence source;
+
+    private final int offset;
+
+    private final int length;
+
+    CharSlice(CharSequence source, int start, int end) {
+        this.source = source;
+        this.offset = start;
+        this.length = end - start;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new StringIndexOutOfBoundsException(index);
+        }
+        return source.charAt(offset + index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new StringIndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length);
+        }
+        return new CharSlice(source, offset + start, offset + end);
+    }
+
+    @Override
+    public String toString() {
+        return source.subSequence(offset, offset + length).toString();
+    }
+}
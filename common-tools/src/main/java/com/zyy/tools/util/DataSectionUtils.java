@@ -2,9 +2,32 @@ package com.zyy.tools.util;
 
 import org.apache.commons.collections4.CollectionUtils;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class DataSectionUtils {
 
@@ -18,19 +41,472 @@ public class DataSectionUtils {
      * @param params   查询参数
      * @return 全部结果数据
      */
-    public static List dataSection(Function<List, List> function, List params) {
-        int count = params.size() / SECTION + 1;
-        List result = new ArrayList<>();
-        for (int i = 0; i < count; i++) {
-            int toIndex = (i + 1) * SECTION;
-            if (i + 1 == count) {
-                toIndex = params.size();
+    public static <P, R> List<R> dataSection(Function<List<P>, List<R>> function, List<P> params) {
+        return dataSection(function, params, SECTION);
+    }
+
+    /**
+     * 数据分片处理，指定每片大小
+     *
+     * @param function    查询方法
+     * @param params      查询参数
+     * @param sectionSize 每片参数个数
+     * @return 全部结果数据
+     */
+    public static <P, R> List<R> dataSection(Function<List<P>, List<R>> function, List<P> params, int sectionSize) {
+        List<R> result = new ArrayList<>();
+        for (List<P> partParams : sections(params, sectionSize)) {
+            result.addAll(function.apply(partParams));
+        }
+        return result;
+    }
+
+    /**
+     * 数据分片处理，按调用耗时自适应调整每片大小
+     * 执行结束后可通过 adaptive.getSectionSize() 取得调整后的大小
+     *
+     * @param function 查询方法
+     * @param params   查询参数
+     * @param adaptive 自适应分片大小
+     * @return 全部结果数据
+     */
+    public static <P, R> List<R> dataSection(Function<List<P>, List<R>> function, List<P> params,
+                                             AdaptiveSection adaptive) {
+        List<R> result = new ArrayList<>();
+        if (CollectionUtils.isEmpty(params)) {
+            return result;
+        }
+        int size = params.size();
+        for (int from = 0; from < size; ) {
+            int to = Math.min(size, from + adaptive.getSectionSize());
+            List<P> partParams = params.subList(from, to);
+            long start = System.nanoTime();
+            List<R> part = function.apply(partParams);
+            adaptive.record(partParams.size(), part.size(), System.nanoTime() - start);
+            result.addAll(part);
+            from = to;
+        }
+        return result;
+    }
+
+    /**
+     * 数据分片并行处理，使用内置线程池
+     * 内置线程池的等待队列有上限，队列满时剩余分片由调用线程执行
+     *
+     * @param function       查询方法
+     * @param params         查询参数
+     * @param sectionSize    每片参数个数
+     * @param maxConcurrency 最大并发数
+     * @return 全部结果数据，按分片顺序合并
+     */
+    public static <P, R> List<R> dataSectionParallel(Function<List<P>, List<R>> function, List<P> params,
+                                                     int sectionSize, int maxConcurrency) {
+        return dataSectionParallel(function, params, sectionSize, ExecutorHolder.EXECUTOR, maxConcurrency);
+    }
+
+    /**
+     * 数据分片并行处理
+     * 调用线程也参与执行分片；任一分片失败后，尚未开始的分片不再执行，并抛出第一个异常
+     * 调用线程只等待已开始执行的协助任务，不等待仍在排队的任务，在同一线程池的线程中调用也不会死锁
+     *
+     * @param function       查询方法
+     * @param params         查询参数
+     * @param sectionSize    每片参数个数
+     * @param executor       执行分片的线程池
+     * @param maxConcurrency 最大并发数（含调用线程）
+     * @return 全部结果数据，按分片顺序合并
+     */
+    public static <P, R> List<R> dataSectionParallel(Function<List<P>, List<R>> function, List<P> params,
+                                                     int sectionSize, Executor executor, int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("The maxConcurrency must be a positive integer");
+        }
+        List<List<P>> sections = sections(params, sectionSize);
+        int count = sections.size();
+        if (count <= 1 || maxConcurrency == 1) {
+            return dataSection(function, params, sectionSize);
+        }
+        List<List<R>> parts = new ArrayList<>(Collections.nCopies(count, null));
+        AtomicInteger next = new AtomicInteger();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Runnable worker = () -> {
+            int i;
+            while (failure.get() == null && (i = next.getAndIncrement()) < count) {
+                try {
+                    parts.set(i, function.apply(sections.get(i)));
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
             }
-            List partParams = params.subList(i * SECTION, toIndex);
-            if (CollectionUtils.isNotEmpty(partParams)) {
-                result.addAll(function.apply(partParams));
+        };
+        // 正在执行的协助任务数，先计数再领取分片；仍在排队的任务不计入，开始后领取不到分片直接返回
+        AtomicInteger active = new AtomicInteger();
+        Runnable helper = () -> {
+            active.incrementAndGet();
+            try {
+                worker.run();
+            } finally {
+                if (active.decrementAndGet() == 0) {
+                    synchronized (active) {
+                        active.notifyAll();
+                    }
+                }
             }
+        };
+        int workers = Math.min(maxConcurrency, count);
+        for (int i = 1; i < workers; i++) {
+            try {
+                executor.execute(helper);
+            } catch (RejectedExecutionException e) {
+                // 线程池满时由调用线程执行剩余分片
+                break;
+            }
+        }
+        worker.run();
+        // 失败时调用线程提前结束，之后开始的协助任务不再领取分片
+        next.set(count);
+        try {
+            synchronized (active) {
+                while (active.get() > 0) {
+                    active.wait();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, e);
+        }
+        rethrow(failure.get());
+
+        int size = 0;
+        for (List<R> part : parts) {
+            size += part.size();
+        }
+        List<R> result = new ArrayList<>(size);
+        for (List<R> part : parts) {
+            result.addAll(part);
         }
         return result;
     }
+
+    /**
+     * 按id分片查询并按id建立索引
+     * id先去重再分片，结果放入不装箱的 LongObjectHashMap；查不到的id不在结果中
+     *
+     * @param function       查询方法
+     * @param ids            id
+     * @param keyExtractor   从结果中取id
+     * @param sectionSize    每片参数个数
+     * @param keepInputOrder 结果是否按输入id的顺序遍历
+     * @return id -> 结果
+     */
+    public static <R> LongObjectHashMap<R> dataSectionToMap(Function<List<Long>, List<R>> function, long[] ids,
+                                                            ToLongFunction<? super R> keyExtractor,
+                                                            int sectionSize, boolean keepInputOrder) {
+        LongObjectHashMap<Boolean> seen = new LongObjectHashMap<>(ids.length, false);
+        List<Long> uniqueIds = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            if (seen.put(id, Boolean.TRUE) == null) {
+                uniqueIds.add(id);
+            }
+        }
+        LongObjectHashMap<R> byId = new LongObjectHashMap<>(uniqueIds.size(), false);
+        dataSectionEach(function, uniqueIds, sectionSize, part -> {
+            for (R row : part) {
+                byId.put(keyExtractor.applyAsLong(row), row);
+            }
+        });
+        if (!keepInputOrder) {
+            return byId;
+        }
+        LongObjectHashMap<R> ordered = new LongObjectHashMap<>(byId.size(), true);
+        for (Long id : uniqueIds) {
+            R row = byId.get(id);
+            if (row != null) {
+                ordered.put(id, row);
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * 按id分片查询并按id建立索引，一次查询1000，不保证顺序
+     *
+     * @param function     查询方法
+     * @param ids          id
+     * @param keyExtractor 从结果中取id
+     * @return id -> 结果
+     */
+    public static <R> LongObjectHashMap<R> dataSectionToMap(Function<List<Long>, List<R>> function, long[] ids,
+                                                            ToLongFunction<? super R> keyExtractor) {
+        return dataSectionToMap(function, ids, keyExtractor, SECTION, false);
+    }
+
+    /**
+     * 按id分片查询并按id建立索引，忽略null的id
+     *
+     * @param function       查询方法
+     * @param ids            id
+     * @param keyExtractor   从结果中取id
+     * @param sectionSize    每片参数个数
+     * @param keepInputOrder 结果是否按输入id的顺序遍历
+     * @return id -> 结果
+     */
+    public static <R> LongObjectHashMap<R> dataSectionToMap(Function<List<Long>, List<R>> function,
+                                                            Collection<Long> ids,
+                                                            ToLongFunction<? super R> keyExtractor,
+                                                            int sectionSize, boolean keepInputOrder) {
+        long[] array = new long[ids.size()];
+        int n = 0;
+        for (Long id : ids) {
+            if (id != null) {
+                array[n++] = id;
+            }
+        }
+        return dataSectionToMap(function, n == array.length ? array : Arrays.copyOf(array, n),
+                keyExtractor, sectionSize, keepInputOrder);
+    }
+
+    /**
+     * 数据分片处理，每片查询完成后立即交给consumer，不汇总全部结果
+     *
+     * @param function    查询方法
+     * @param params      查询参数
+     * @param sectionSize 每片参数个数
+     * @param consumer    每片结果的处理方法
+     */
+    public static <P, R> void dataSectionEach(Function<List<P>, List<R>> function, List<P> params, int sectionSize,
+                                              Consumer<? super List<R>> consumer) {
+        for (List<P> partParams : sections(params, sectionSize)) {
+            consumer.accept(function.apply(partParams));
+        }
+    }
+
+    /**
+     * 数据分片惰性处理，遍历到某一片时才查询该片
+     *
+     * @param function    查询方法
+     * @param params      查询参数
+     * @param sectionSize 每片参数个数
+     * @return 结果迭代器
+     */
+    public static <P, R> Iterator<R> dataSectionIterator(Function<List<P>, List<R>> function, List<P> params,
+                                                         int sectionSize) {
+        return new SectionIterator<>(function, sections(params, sectionSize), null, 0);
+    }
+
+    /**
+     * 数据分片惰性处理，并在线程池中预读后续readAhead片
+     * 内存中最多保留当前片和预读的readAhead片结果
+     *
+     * @param function    查询方法
+     * @param params      查询参数
+     * @param sectionSize 每片参数个数
+     * @param executor    预读使用的线程池，为null时使用内置线程池
+     * @param readAhead   预读片数
+     * @return 结果迭代器
+     */
+    public static <P, R> Iterator<R> dataSectionIterator(Function<List<P>, List<R>> function, List<P> params,
+                                                         int sectionSize, Executor executor, int readAhead) {
+        if (readAhead < 0) {
+            throw new IllegalArgumentException("The readAhead must be a positive integer or zero");
+        }
+        if (executor == null && readAhead > 0) {
+            executor = ExecutorHolder.EXECUTOR;
+        }
+        return new SectionIterator<>(function, sections(params, sectionSize), executor, readAhead);
+    }
+
+    /**
+     * 数据分片惰性处理，返回Stream
+     * 提前结束时应关闭Stream以取消尚未完成的预读
+     *
+     * @param function    查询方法
+     * @param params      查询参数
+     * @param sectionSize 每片参数个数
+     * @param readAhead   预读片数，0表示不预读，预读使用内置线程池
+     * @return 结果Stream
+     */
+    public static <P, R> Stream<R> dataSectionStream(Function<List<P>, List<R>> function, List<P> params,
+                                                     int sectionSize, int readAhead) {
+        if (readAhead < 0) {
+            throw new IllegalArgumentException("The readAhead must be a positive integer or zero");
+        }
+        SectionIterator<P, R> iterator = new SectionIterator<>(function, sections(params, sectionSize),
+                readAhead > 0 ? ExecutorHolder.EXECUTOR : null, readAhead);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+                .onClose(iterator::close);
+    }
+
+    /**
+     * 内置线程池
+     */
+    static Executor defaultExecutor() {
+        return ExecutorHolder.EXECUTOR;
+    }
+
+    /**
+     * 内置定时器，单个守护线程，只用于触发轻量任务
+     */
+    static ScheduledExecutorService defaultScheduler() {
+        return SchedulerHolder.SCHEDULER;
+    }
+
+    /**
+     * 按指定大小切分参数，返回原列表的视图
+     */
+    static <P> List<List<P>> sections(List<P> params, int sectionSize) {
+        if (sectionSize < 1) {
+            throw new IllegalArgumentException("The sectionSize must be a positive integer");
+        }
+        if (CollectionUtils.isEmpty(params)) {
+            return Collections.emptyList();
+        }
+        int size = params.size();
+        List<List<P>> sections = new ArrayList<>((size + sectionSize - 1) / sectionSize);
+        for (int from = 0; from < size; from += sectionSize) {
+            sections.add(params.subList(from, Math.min(size, from + sectionSize)));
+        }
+        return sections;
+    }
+
+    static void rethrow(Throwable e) {
+        if (e == null) {
+            return;
+        }
+        if (e instanceof RuntimeException) {
+            throw (RuntimeException) e;
+        }
+        if (e instanceof Error) {
+            throw (Error) e;
+        }
+        throw new IllegalStateException(e);
+    }
+
+    /**
+     * 按片惰性查询的迭代器
+     */
+    private static class SectionIterator<P, R> implements Iterator<R> {
+        private final Function<List<P>, List<R>> function;
+        private final List<List<P>> sections;
+        private final Executor executor;
+        private final int readAhead;
+        private final ArrayDeque<CompletableFuture<List<R>>> pending = new ArrayDeque<>();
+        private int submitted;
+        private Iterator<R> current = Collections.emptyIterator();
+
+        SectionIterator(Function<List<P>, List<R>> function, List<List<P>> sections, Executor executor, int readAhead) {
+            this.function = function;
+            this.sections = sections;
+            this.executor = executor;
+            this.readAhead = readAhead;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext()) {
+                if (submitted == sections.size() && pending.isEmpty()) {
+                    return false;
+                }
+                current = fetchNext().iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public R next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+
+        void close() {
+            for (CompletableFuture<List<R>> future : pending) {
+                future.cancel(false);
+            }
+            pending.clear();
+            submitted = sections.size();
+            current = Collections.emptyIterator();
+        }
+
+        private List<R> fetchNext() {
+            if (readAhead == 0) {
+                return function.apply(sections.get(submitted++));
+            }
+            fill();
+            CompletableFuture<List<R>> future = pending.poll();
+            // 取走一片后立即补充预读，让后续分片与当前片的消费并行
+            fill();
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                close();
+                rethrow(e.getCause());
+                throw e;
+            }
+        }
+
+        private void fill() {
+            while (pending.size() < readAhead && submitted < sections.size()) {
+                List<P> partParams = sections.get(submitted);
+                try {
+                    pending.add(CompletableFuture.supplyAsync(() -> function.apply(partParams), executor));
+                } catch (RejectedExecutionException e) {
+                    // 线程池满时暂停预读，没有可取的分片时由当前线程执行
+                    if (!pending.isEmpty()) {
+                        return;
+                    }
+                    CompletableFuture<List<R>> future = new CompletableFuture<>();
+                    try {
+                        future.complete(function.apply(partParams));
+                    } catch (Throwable t) {
+                        future.completeExceptionally(t);
+                    }
+                    pending.add(future);
+                }
+                submitted++;
+            }
+        }
+    }
+
+    /**
+     * 内置线程池，延迟创建，空闲线程自动回收
+     * 等待队列有上限，队列满时拒绝任务：并行分片改由调用线程执行，预读暂停
+     */
+    private static class ExecutorHolder {
+        private static final int POOL_SIZE = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+        private static final int QUEUE_CAPACITY = 1024;
+
+        private static final ThreadPoolExecutor EXECUTOR = createExecutor();
+
+        private static ThreadPoolExecutor createExecutor() {
+            AtomicInteger index = new AtomicInteger();
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(POOL_SIZE, POOL_SIZE, 60, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(QUEUE_CAPACITY), r -> {
+                Thread thread = new Thread(r, "data-section-" + index.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+    }
+
+    /**
+     * 内置定时器，延迟创建，取消的任务立即移出队列
+     */
+    private static class SchedulerHolder {
+        private static final ScheduledThreadPoolExecutor SCHEDULER = createScheduler();
+
+        private static ScheduledThreadPoolExecutor createScheduler() {
+            ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, r -> {
+                Thread thread = new Thread(r, "data-section-scheduler");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.setRemoveOnCancelPolicy(true);
+            return scheduler;
+        }
+    }
 }
@@ -0,0 +1,250 @@
+package com.zyy.tools.util;
+
+import java.text.DecimalFormatSymbols;
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.GregorianCalendar;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 日期格式化的缓存和快速路径，结果与 SimpleDateFormat 一致
+ * 常用格式（yyyy-MM-dd、yyyy-MM-dd HH:mm:ss、yyyyMMddHHmmss）直接计算字段写入，不分配对象；
+ * 其余纯数字格式使用缓存的 DateTimeFormatter；
+ * 只在公历（1582年改历之后、一万年之前）且地区为公历、ASCII数字时走快速路径，否则由调用方回退到 SimpleDateFormat
+ */
+final class DateFormatRegistry {
+
+    static final int FAST_NONE = 0;
+
+    static final int FAST_DATE = 1;
+
+    static final int FAST_DATE_TIME = 2;
+
+    static final int FAST_COMPACT = 3;
+
+    /**
+     * GregorianCalendar 默认的改历时刻 1582-10-15T00:00:00Z
+     */
+    private static final long GREGORIAN_CUTOVER = -12219292800000L;
+
+    /**
+     * 10000-01-01T00:00:00Z
+     */
+    private static final long YEAR_10000 = 253402300800000L;
+
+    private static final long MILLIS_PER_DAY = 86400000L;
+
+    /**
+     * 缓存条数上限，超过时清空重建；正常使用的格式、时区、地区组合远少于该数
+     */
+    private static final int MAX_FORMATTERS = 128;
+
+    private static final int MAX_LOCALES = 64;
+
+    private static final Map<FormatterKey, DateTimeFormatter> FORMATTERS = new ConcurrentHashMap<>(32);
+
+    /**
+     * 地区 -> 是否使用公历且数字为ASCII，此时 SimpleDateFormat 的数字字段与快速路径一致
+     */
+    private static final Map<Locale, Boolean> SAFE_LOCALES = new ConcurrentHashMap<>();
+
+    private DateFormatRegistry() {
+    }
+
+    /**
+     * 按格式、时区、地区取缓存的 DateTimeFormatter
+     */
+    static DateTimeFormatter formatter(String pattern, ZoneId zone, Locale locale) {
+        FormatterKey key = new FormatterKey(pattern, zone, locale);
+        DateTimeFormatter formatter = FORMATTERS.get(key);
+        if (formatter == null) {
+            formatter = DateTimeFormatter.ofPattern(pattern, locale).withZone(zone);
+            if (FORMATTERS.size() >= MAX_FORMATTERS) {
+                FORMATTERS.clear();
+            }
+            FORMATTERS.put(key, formatter);
+        }
+        return formatter;
+    }
+
+    /**
+     * 常用格式的编号，不是常用格式返回 FAST_NONE
+     */
+    static int fastPattern(String pattern) {
+        switch (pattern) {
+            case "yyyy-MM-dd":
+                return FAST_DATE;
+            case "yyyy-MM-dd HH:mm:ss":
+                return FAST_DATE_TIME;
+            case "yyyyMMddHHmmss":
+                return FAST_COMPACT;
+            default:
+                return FAST_NONE;
+        }
+    }
+
+    /**
+     * 只含数字字段的格式：yy/yyyy、M/MM、d/dd、H/HH、m/mm、s/ss、SSS 和不带引号的符号，
+     * 这些字段 DateTimeFormatter 与 SimpleDateFormat 的输出相同
+     */
+    static boolean isNumericPattern(String pattern) {
+        int length = pattern.length();
+        int i = 0;
+        while (i < length) {
+            char c = pattern.charAt(i);
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) {
+                int count = 1;
+                while (i + count < length && pattern.charAt(i + count) == c) {
+                    count++;
+                }
+                boolean safe;
+                switch (c) {
+                    case 'y':
+                        safe = count == 2 || count == 4;
+                        break;
+                    case 'M':
+                    case 'd':
+                    case 'H':
+                    case 'm':
+                    case 's':
+                        safe = count <= 2;
+                        break;
+                    case 'S':
+                        safe = count == 3;
+                        break;
+                    default:
+                        safe = false;
+                }
+                if (!safe) {
+                    return false;
+                }
+                i += count;
+            } else if (c < ' ' || c > '~' || "'[]{}#".indexOf(c) >= 0) {
+                return false;
+            } else {
+                i++;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 时刻和地区是否可以走快速路径
+     */
+    static boolean supports(long millis, TimeZone zone, Locale locale) {
+        // GregorianCalendar 按本地日期判断是否改历
+        long local = millis + zone.getOffset(millis);
+        if (local < GREGORIAN_CUTOVER || local >= YEAR_10000) {
+            return false;
+        }
+        Boolean safe = SAFE_LOCALES.get(locale);
+        if (safe == null) {
+            safe = new SimpleDateFormat("yyyy", locale).getCalendar().getClass() == GregorianCalendar.class
+                    && DecimalFormatSymbols.getInstance(locale).getZeroDigit() == '0';
+            if (SAFE_LOCALES.size() >= MAX_LOCALES) {
+                SAFE_LOCALES.clear();
+            }
+            SAFE_LOCALES.put(locale, safe);
+        }
+        return safe;
+    }
+
+    /**
+     * 常用格式直接写入，不分配对象
+     */
+    static void formatFast(StringBuilder out, int fastPattern, long millis, TimeZone zone) {
+        long local = millis + zone.getOffset(millis);
+        long days = Math.floorDiv(local, MILLIS_PER_DAY);
+        int millisOfDay = (int) Math.floorMod(local, MILLIS_PER_DAY);
+        // 公历日期由纪元日数推算（Howard Hinnant civil_from_days）
+        long z = days + 719468;
+        long era = (z >= 0 ? z : z - 146096) / 146097;
+        long dayOfEra = z - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long mp = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * mp + 2) / 5 + 1);
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+        int secondOfDay = millisOfDay / 1000;
+
+        appendDigits(out, year, 4);
+        if (fastPattern == FAST_COMPACT) {
+            appendDigits(out, month, 2);
+            appendDigits(out, day, 2);
+            appendDigits(out, secondOfDay / 3600, 2);
+            appendDigits(out, secondOfDay / 60 % 60, 2);
+            appendDigits(out, secondOfDay % 60, 2);
+            return;
+        }
+        out.append('-');
+        appendDigits(out, month, 2);
+        out.append('-');
+        appendDigits(out, day, 2);
+        if (fastPattern == FAST_DATE_TIME) {
+            out.append(' ');
+            appendDigits(out, secondOfDay / 3600, 2);
+            out.append(':');
+            appendDigits(out, secondOfDay / 60 % 60, 2);
+            out.append(':');
+            appendDigits(out, secondOfDay % 60, 2);
+        }
+    }
+
+    /**
+     * 用缓存的 DateTimeFormatter 格式化纯数字格式
+     * 时区偏移取自 TimeZone 而不是 ZoneRules：两者对早期历史时间（如LMT）的偏移不同，SimpleDateFormat 用的是前者
+     */
+    static boolean formatNumeric(StringBuilder out, String pattern, long millis, TimeZone zone, Locale locale) {
+        int offset = zone.getOffset(millis);
+        if (offset % 1000 != 0) {
+            return false;
+        }
+        ZoneOffset zoneOffset = ZoneOffset.ofTotalSeconds(offset / 1000);
+        formatter(pattern, zoneOffset, locale).formatTo(Instant.ofEpochMilli(millis), out);
+        return true;
+    }
+
+    private static void appendDigits(StringBuilder out, int value, int width) {
+        if (width == 4) {
+            out.append((char) ('0' + value / 1000)).append((char) ('0' + value / 100 % 10));
+        }
+        out.append((char) ('0' + value / 10 % 10)).append((char) ('0' + value % 10));
+    }
+
+    private static final class FormatterKey {
+
+        private final String pattern;
+
+        private final ZoneId zone;
+
+        private final Locale locale;
+
+        FormatterKey(String pattern, ZoneId zone, Locale locale) {
+            this.pattern = pattern;
+            this.zone = zone;
+            this.locale = locale;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof FormatterKey)) {
+                return false;
+            }
+            FormatterKey other = (FormatterKey) o;
+            return pattern.equals(other.pattern) && zone.equals(other.zone) && locale.equals(other.locale);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(pattern, zone, locale);
+        }
+    }
+}
@@ -7,11 +7,16 @@ import cn.hutool.core.util.NumberUtil;
 import com.zyy.tools.enums.WeekEnum;
 import org.apache.commons.lang3.StringUtils;
 
+import java.io.IOException;
 import java.text.SimpleDateFormat;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
 
 public class DateUtils extends DateUtil {
 
+    private static final ThreadLocal<StringBuilder> FORMAT_BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(32));
 
     /**
      * 指定格式转换Date对象
@@ -22,16 +27,113 @@ public class DateUtils extends DateUtil {
      * @return Date对象
      */
     public static Date parseDate(String str, String pattern) {
-        if (StringUtils.isBlank(str.trim())) {
+        if (StringUtils.isBlank(str)) {
             return null;
         }
+        // 定长解析严格校验，不符合时（如 2024-1-5、带多余字符）不构造异常，直接按原方式解析
+        long millis = FixedDateParser.of(pattern).tryParse(str);
+        if (millis != FixedDateParser.INVALID) {
+            return new Date(millis);
+        }
         return parse(str, pattern).toJdkDate();
     }
 
+    /**
+     * 指定格式按默认时区解析为时间戳，不创建Date对象
+     * 定长格式（yyyy、MM、dd、HH、mm、ss、SSS 加符号）直接按偏移取数字并严格校验，其他格式回退到 hutool；
+     * 批量解析时用 {@link FixedDateParser#of(String, TimeZone)} 取一次解析器重复使用
+     *
+     * @param str     日期字符串
+     * @param pattern 格式
+     * @return 毫秒时间戳
+     * @throws DateTimeParseException 不是合法的日期
+     */
+    public static long parseMillis(CharSequence str, String pattern) {
+        return FixedDateParser.of(pattern).parse(str);
+    }
 
+    /**
+     * 按默认时区格式化，结果与 new SimpleDateFormat(pattern).format(date) 一致
+     *
+     * @param date    日期
+     * @param pattern 格式
+     * @return 日期字符串
+     */
     public static String getDateFormat(Date date, String pattern) {
+        StringBuilder sb = new StringBuilder(pattern.length() + 8);
+        formatTo(sb, date.getTime(), pattern, TimeZone.getDefault());
+        return sb.toString();
+    }
+
+    /**
+     * 格式化后追加到sb，结果与 new SimpleDateFormat(pattern).format(date) 一致
+     * TimeZone.getDefault() 每次返回副本，使用默认时区的重载每次调用都会分配；
+     * 批量格式化时取一次时区，用 {@link #formatTo(StringBuilder, long, String, TimeZone)}
+     *
+     * @param sb      输出
+     * @param date    日期
+     * @param pattern 格式
+     */
+    public static void formatTo(StringBuilder sb, Date date, String pattern) {
+        formatTo(sb, date.getTime(), pattern, TimeZone.getDefault());
+    }
+
+    /**
+     * 格式化后写入out，如Writer
+     *
+     * @param out     输出
+     * @param date    日期
+     * @param pattern 格式
+     * @throws IOException 写入失败
+     */
+    public static void formatTo(Appendable out, Date date, String pattern) throws IOException {
+        if (out instanceof StringBuilder) {
+            formatTo((StringBuilder) out, date, pattern);
+            return;
+        }
+        StringBuilder sb = FORMAT_BUFFER.get();
+        sb.setLength(0);
+        formatTo(sb, date.getTime(), pattern, TimeZone.getDefault());
+        out.append(sb);
+    }
+
+    /**
+     * 按指定时区格式化后追加到sb，结果与设置了该时区的 SimpleDateFormat 一致
+     * yyyy-MM-dd、yyyy-MM-dd HH:mm:ss、yyyyMMddHHmmss 不分配对象（只有此重载不分配），
+     * 其余纯数字格式使用缓存的 DateTimeFormatter，其他格式使用 SimpleDateFormat
+     *
+     * @param sb          输出
+     * @param epochMillis 时间戳
+     * @param pattern     格式
+     * @param zone        时区
+     */
+    public static void formatTo(StringBuilder sb, long epochMillis, String pattern, TimeZone zone) {
+        Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+        if (DateFormatRegistry.supports(epochMillis, zone, locale)) {
+            int fastPattern = DateFormatRegistry.fastPattern(pattern);
+            if (fastPattern != DateFormatRegistry.FAST_NONE) {
+                DateFormatRegistry.formatFast(sb, fastPattern, epochMillis, zone);
+                return;
+            }
+            if (DateFormatRegistry.isNumericPattern(pattern)
+                    && DateFormatRegistry.formatNumeric(sb, pattern, epochMillis, zone, locale)) {
+                return;
+            }
+        }
         SimpleDateFormat sdf = new SimpleDateFormat(pattern);
-        return sdf.format(date);
+        sdf.setTimeZone(zone);
+        sb.append(sdf.format(new Date(epochMillis)));
+    }
+
+    /**
+     * 取缓存的 DateTimeFormatter，按格式和时区缓存，使用默认地区
+     *
+     * @param pattern 格式
+     * @param zone    时区
+     * @return 不可变的 DateTimeFormatter
+     */
+    public static DateTimeFormatter getFormatter(String pattern, ZoneId zone) {
+        return DateFormatRegistry.formatter(pattern, zone, Locale.getDefault(Locale.Category.FORMAT));
     }
 
     /**
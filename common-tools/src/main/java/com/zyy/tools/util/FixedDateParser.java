@@ -0,0 +1,396 @@
+package com.zyy.tools.util;
+
+import cn.hutool.core.date.DateUtil;
+import cn.hutool.core.date.DateException;
+import cn.hutool.core.date.format.GlobalCustomFormat;
+
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 定长日期格式的快速解析
+ * 格式只含 yyyy、MM、dd、HH、mm、ss、SSS 和不带引号的符号时，编译为各字段的固定偏移，
+ * 直接从字符序列或字节数组中取数字计算时间戳，严格校验长度、符号和取值范围；
+ * 接受的日期与非宽松的 SimpleDateFormat 一致，夏令时跳过的时刻和公元0年不合法。
+ * 其他格式回退到 hutool 解析（非宽松的 SimpleDateFormat）。
+ * 解析器创建时绑定时区，按格式和时区缓存；批量解析时取一次解析器重复使用
+ */
+public final class FixedDateParser {
+
+    /**
+     * 缓存条数上限，超过时清空重建
+     */
+    private static final int MAX_CACHED = 256;
+
+    private static final Map<ParserKey, FixedDateParser> PARSERS = new ConcurrentHashMap<>(32);
+
+    /**
+     * GregorianCalendar 默认的改历时刻 1582-10-15T00:00:00Z
+     */
+    private static final long GREGORIAN_CUTOVER = -12219292800000L;
+
+    private static final long MILLIS_PER_DAY = 86400000L;
+
+    /**
+     * 时区偏移在该范围内不变时才直接换算，否则交给 Calendar 处理夏令时切换
+     */
+    private static final long TRANSITION_WINDOW = 6 * 60 * 60 * 1000L;
+
+    /**
+     * tryParse 不符合时的返回值，四位年份的时间戳不会取到
+     */
+    static final long INVALID = Long.MIN_VALUE;
+
+    private static final int YEAR = 0;
+    private static final int MONTH = 1;
+    private static final int DAY = 2;
+    private static final int HOUR = 3;
+    private static final int MINUTE = 4;
+    private static final int SECOND = 5;
+    private static final int MILLIS = 6;
+
+    private static final int[] WIDTHS = {4, 2, 2, 2, 2, 2, 3};
+
+    private static final String[] FIELD_NAMES = {"year", "month", "day", "hour", "minute", "second", "millis"};
+
+    private static final int[] DAYS_IN_MONTH = {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+
+    private final String pattern;
+
+    private final TimeZone zone;
+
+    private final boolean compiled;
+
+    private final int length;
+
+    /**
+     * 各字段的起始偏移，-1表示没有该字段
+     */
+    private final int[] offsets = {-1, -1, -1, -1, -1, -1, -1};
+
+    /**
+     * 符号的位置和字符
+     */
+    private final int[] literalOffsets;
+
+    private final char[] literals;
+
+    private FixedDateParser(String pattern, TimeZone zone) {
+        this.pattern = pattern;
+        this.zone = zone;
+        int[] literalOffsets = new int[pattern.length()];
+        char[] literals = new char[pattern.length()];
+        int literalCount = 0;
+        boolean ok = true;
+        int i = 0;
+        while (i < pattern.length() && ok) {
+            char c = pattern.charAt(i);
+            int count = 1;
+            while (i + count < pattern.length() && pattern.charAt(i + count) == c) {
+                count++;
+            }
+            int field = field(c);
+            if (field >= 0) {
+                ok = count == WIDTHS[field] && offsets[field] < 0;
+                offsets[field] = i;
+                i += count;
+            } else if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '\'' || c > '~' || c < ' ') {
+                ok = false;
+            } else {
+                literalOffsets[literalCount] = i;
+                literals[literalCount++] = c;
+                i++;
+            }
+        }
+        this.compiled = ok;
+        this.length = pattern.length();
+        this.literalOffsets = Arrays.copyOf(literalOffsets, literalCount);
+        this.literals = Arrays.copyOf(literals, literalCount);
+    }
+
+    /**
+     * 取缓存的解析器，绑定当前的默认时区
+     */
+    public static FixedDateParser of(String pattern) {
+        return of(pattern, TimeZone.getDefault());
+    }
+
+    /**
+     * 取缓存的解析器，绑定指定时区
+     */
+    public static FixedDateParser of(String pattern, TimeZone zone) {
+        ParserKey key = new ParserKey(pattern, zone);
+        FixedDateParser parser = PARSERS.get(key);
+        if (parser == null) {
+            TimeZone copy = (TimeZone) zone.clone();
+            parser = new FixedDateParser(pattern, copy);
+            if (PARSERS.size() >= MAX_CACHED) {
+                PARSERS.clear();
+            }
+            PARSERS.put(new ParserKey(pattern, copy), parser);
+        }
+        return parser;
+    }
+
+    /**
+     * 格式是否编译为定长解析，否则回退到 hutool
+     */
+    public boolean isCompiled() {
+        return compiled;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    public TimeZone getTimeZone() {
+        return (TimeZone) zone.clone();
+    }
+
+    /**
+     * 解析为时间戳
+     *
+     * @param text 日期字符串
+     * @return 毫秒时间戳
+     * @throws DateTimeParseException 格式不符或取值越界，回退到 hutool 解析失败时也抛出该异常
+     */
+    public long parse(CharSequence text) {
+        return parse(text, 0, text.length());
+    }
+
+    /**
+     * 解析字符序列中 [start, end) 的部分
+     */
+    public long parse(CharSequence text, int start, int end) {
+        if (!compiled) {
+            return fallback(text.subSequence(start, end));
+        }
+        return parse(text, null, start, end - start, true);
+    }
+
+    /**
+     * 解析字节数组中的ASCII日期，不创建字符串
+     */
+    public long parse(byte[] bytes, int offset, int length) {
+        if (!compiled) {
+            return fallback(new String(bytes, offset, length, StandardCharsets.ISO_8859_1));
+        }
+        return parse(null, bytes, offset, length, true);
+    }
+
+    /**
+     * 定长解析，不符合时返回 {@link #INVALID} 而不抛出异常，供先尝试定长解析再回退的调用方使用
+     * 未编译的格式直接返回 INVALID
+     */
+    long tryParse(CharSequence text) {
+        if (!compiled) {
+            return INVALID;
+        }
+        return parse(text, null, 0, text.length(), false);
+    }
+
+    /**
+     * @param raise 不符合时抛出异常，为false时返回 INVALID，不拼接错误信息
+     */
+    private long parse(CharSequence text, byte[] bytes, int start, int textLength, boolean raise) {
+        if (textLength != length) {
+            if (!raise) {
+                return INVALID;
+            }
+            throw error("Text length " + textLength + " does not match pattern " + pattern, text, bytes, start,
+                    textLength, Math.min(textLength, length));
+        }
+        for (int i = 0; i < literals.length; i++) {
+            int at = literalOffsets[i];
+            if (charAt(text, bytes, start + at) != literals[i]) {
+                if (!raise) {
+                    return INVALID;
+                }
+                throw error("Expected '" + literals[i] + "'", text, bytes, start, textLength, at);
+            }
+        }
+        int year = number(text, bytes, start, textLength, YEAR, 1970, raise);
+        int month = number(text, bytes, start, textLength, MONTH, 1, raise);
+        int day = number(text, bytes, start, textLength, DAY, 1, raise);
+        int hour = number(text, bytes, start, textLength, HOUR, 0, raise);
+        int minute = number(text, bytes, start, textLength, MINUTE, 0, raise);
+        int second = number(text, bytes, start, textLength, SECOND, 0, raise);
+        int millis = number(text, bytes, start, textLength, MILLIS, 0, raise);
+        // 非数字时各字段为 -1
+        if ((year | month | day | hour | minute | second | millis) < 0) {
+            return INVALID;
+        }
+        int invalidField = -1;
+        int invalidValue = 0;
+        if (year == 0) {
+            invalidField = YEAR;
+        } else if (month < 1 || month > 12) {
+            invalidField = MONTH;
+            invalidValue = month;
+        } else if (day < 1 || day > (year > 1582 ? daysInMonth(year, month) : 31)) {
+            // 改历之前按儒略历，由 Calendar 校验
+            invalidField = DAY;
+            invalidValue = day;
+        } else if (hour > 23) {
+            invalidField = HOUR;
+            invalidValue = hour;
+        } else if (minute > 59) {
+            invalidField = MINUTE;
+            invalidValue = minute;
+        } else if (second > 59) {
+            invalidField = SECOND;
+            invalidValue = second;
+        }
+        if (invalidField >= 0) {
+            if (!raise) {
+                return INVALID;
+            }
+            throw error("Invalid " + FIELD_NAMES[invalidField] + " " + invalidValue, text, bytes, start,
+                    textLength, offsets[invalidField]);
+        }
+
+        long local = daysFromCivil(year, month, day) * MILLIS_PER_DAY
+                + ((hour * 60L + minute) * 60 + second) * 1000 + millis;
+        if (local >= GREGORIAN_CUTOVER + MILLIS_PER_DAY) {
+            int offset = zone.getOffset(local - zone.getRawOffset());
+            long utc = local - offset;
+            if (zone.getOffset(utc) == offset && zone.getOffset(utc - TRANSITION_WINDOW) == offset
+                    && zone.getOffset(utc + TRANSITION_WINDOW) == offset) {
+                return utc;
+            }
+        }
+        // 夏令时切换附近或改历之前，按非宽松的 Calendar 换算，与 SimpleDateFormat 一致
+        Calendar calendar = new GregorianCalendar(zone);
+        calendar.clear();
+        calendar.setLenient(false);
+        calendar.set(year, month - 1, day, hour, minute, second);
+        calendar.set(Calendar.MILLISECOND, millis);
+        try {
+            return calendar.getTimeInMillis();
+        } catch (IllegalArgumentException e) {
+            if (!raise) {
+                return INVALID;
+            }
+            throw error("Invalid date or time in zone " + zone.getID(), text, bytes, start, textLength, 0);
+        }
+    }
+
+    /**
+     * 字段不在格式中时返回 absent，非数字且不抛出异常时返回 -1
+     */
+    private int number(CharSequence text, byte[] bytes, int start, int textLength, int field, int absent,
+                       boolean raise) {
+        int offset = offsets[field];
+        if (offset < 0) {
+            return absent;
+        }
+        int value = 0;
+        for (int i = offset; i < offset + WIDTHS[field]; i++) {
+            int digit = charAt(text, bytes, start + i) - '0';
+            if (digit < 0 || digit > 9) {
+                if (!raise) {
+                    return -1;
+                }
+                throw error("Digit expected", text, bytes, start, textLength, i);
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private long fallback(CharSequence text) {
+        try {
+            if (GlobalCustomFormat.isCustomFormat(pattern)) {
+                return DateUtil.parse(text, pattern).getTime();
+            }
+            return DateUtil.parse(text, DateUtil.newSimpleFormat(pattern, null, zone)).getTime();
+        } catch (DateException e) {
+            DateTimeParseException exception = new DateTimeParseException(e.getMessage(), text, 0);
+            exception.initCause(e);
+            throw exception;
+        }
+    }
+
+    private static char charAt(CharSequence text, byte[] bytes, int index) {
+        return text != null ? text.charAt(index) : (char) (bytes[index] & 0xFF);
+    }
+
+    private static int field(char c) {
+        switch (c) {
+            case 'y':
+                return YEAR;
+            case 'M':
+                return MONTH;
+            case 'd':
+                return DAY;
+            case 'H':
+                return HOUR;
+            case 'm':
+                return MINUTE;
+            case 's':
+                return SECOND;
+            case 'S':
+                return MILLIS;
+            default:
+                return -1;
+        }
+    }
+
+    private static int daysInMonth(int year, int month) {
+        if (month == 2 && (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0))) {
+            return 29;
+        }
+        return DAYS_IN_MONTH[month - 1];
+    }
+
+    /**
+     * 公历日期到纪元日数（Howard Hinnant days_from_civil）
+     */
+    private static long daysFromCivil(int year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = (y >= 0 ? y : y - 399) / 400;
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153L * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    private static DateTimeParseException error(String message, CharSequence text, byte[] bytes, int start,
+                                                int textLength, int index) {
+        CharSequence parsed = text != null ? text.subSequence(start, start + textLength)
+                : new String(bytes, start, textLength, StandardCharsets.ISO_8859_1);
+        return new DateTimeParseException(message + " at index " + index + ": " + parsed, parsed, index);
+    }
+
+    private static final class ParserKey {
+
+        private final String pattern;
+
+        private final TimeZone zone;
+
+        ParserKey(String pattern, TimeZone zone) {
+            this.pattern = pattern;
+            this.zone = zone;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof ParserKey)) {
+                return false;
+            }
+            ParserKey other = (ParserKey) o;
+            return pattern.equals(other.pattern) && zone.equals(other.zone);
+        }
+
+        @Override
+        public int hashCode() {
+            return pattern.hashCode() * 31 + zone.hashCode();
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package com.zyy.tools.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * 带超时和对冲请求的分片执行器
+ * 分片并发执行，同时执行的分片数有上限；每片从开始执行时起计算截止时间，排队等待的时间不计入。
+ * 某片执行时间超过历史耗时的指定分位数仍未返回时，再发起一次相同的调用，先返回的结果生效；
+ * 一次调用失败时只要同一分片还有未结束的调用就继续等待，全部失败时该片才失败。
+ * 耗时分布按执行器（即查询方法）统计，只包含调用本身的耗时，对冲阈值随之自适应。
+ * 取消只跳过尚未开始的调用，已开始的调用不会被中断，结果被丢弃。
+ *
+ * @param <P> 参数类型
+ * @param <R> 结果类型
+ */
+public class HedgedSectionExecutor<P, R> {
+
+    /**
+     * 统计的耗时样本数
+     */
+    private static final int SAMPLE_SIZE = 1024;
+
+    /**
+     * 样本数达到后才开始对冲
+     */
+    private static final int MIN_SAMPLES = 20;
+
+    /**
+     * 每新增多少样本重新计算一次对冲阈值
+     */
+    private static final int RECOMPUTE_INTERVAL = 64;
+
+    /**
+     * 默认同时执行的分片数
+     */
+    private static final int DEFAULT_MAX_IN_FLIGHT = 16;
+
+    private final Function<List<P>, List<R>> function;
+
+    private final int sectionSize;
+
+    private final long deadlineNanos;
+
+    private final double hedgePercentile;
+
+    private final Executor executor;
+
+    private final int maxInFlight;
+
+    private final AtomicLongArray samples = new AtomicLongArray(SAMPLE_SIZE);
+
+    private final AtomicLong sampleCount = new AtomicLong();
+
+    private volatile long hedgeDelayNanos = -1;
+
+    private volatile long recomputeAt = MIN_SAMPLES;
+
+    private final AtomicLong hedgesFired = new AtomicLong();
+
+    private final AtomicLong hedgesWon = new AtomicLong();
+
+    private final AtomicLong timeouts = new AtomicLong();
+
+    /**
+     * @param function        查询方法
+     * @param sectionSize     每片参数个数
+     * @param deadlineMillis  每片的截止毫秒数，0表示不限
+     * @param hedgePercentile 触发对冲的耗时分位数 (0, 1)，0表示不对冲
+     */
+    public HedgedSectionExecutor(Function<List<P>, List<R>> function, int sectionSize, long deadlineMillis,
+                                 double hedgePercentile) {
+        this(function, sectionSize, deadlineMillis, hedgePercentile, null);
+    }
+
+    /**
+     * @param function        查询方法
+     * @param sectionSize     每片参数个数
+     * @param deadlineMillis  每片的截止毫秒数，0表示不限
+     * @param hedgePercentile 触发对冲的耗时分位数 (0, 1)，0表示不对冲
+     * @param executor        执行分片的线程池，为null时使用内置线程池
+     */
+    public HedgedSectionExecutor(Function<List<P>, List<R>> function, int sectionSize, long deadlineMillis,
+                                 double hedgePercentile, Executor executor) {
+        this(function, sectionSize, deadlineMillis, hedgePercentile, executor, DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    /**
+     * @param function        查询方法
+     * @param sectionSize     每片参数个数
+     * @param deadlineMillis  每片的截止毫秒数，0表示不限
+     * @param hedgePercentile 触发对冲的耗时分位数 (0, 1)，0表示不对冲
+     * @param executor        执行分片的线程池，为null时使用内置线程池
+     * @param maxInFlight     同时执行的最大分片数
+     */
+    public HedgedSectionExecutor(Function<List<P>, List<R>> function, int sectionSize, long deadlineMillis,
+                                 double hedgePercentile, Executor executor, int maxInFlight) {
+        if (sectionSize < 1 || maxInFlight < 1) {
+            throw new IllegalArgumentException("The sectionSize and maxInFlight must be positive integers");
+        }
+        if (deadlineMillis < 0) {
+            throw new IllegalArgumentException("The deadlineMillis must be a positive integer or zero");
+        }
+        if (hedgePercentile < 0 || hedgePercentile >= 1) {
+            throw new IllegalArgumentException("The hedgePercentile must be between 0 and 1");
+        }
+        this.function = function;
+        this.sectionSize = sectionSize;
+        this.deadlineNanos = TimeUnit.MILLISECONDS.toNanos(deadlineMillis);
+        this.hedgePercentile = hedgePercentile;
+        this.executor = executor != null ? executor : DataSectionUtils.defaultExecutor();
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * 分片执行，结果按分片顺序合并
+     * 任一分片失败或超时时不再发起新的分片，取消其余分片并抛出异常，超时的原因为 TimeoutException
+     *
+     * @param params 查询参数
+     * @return 全部结果数据
+     */
+    public List<R> execute(List<P> params) {
+        List<List<P>> sections = DataSectionUtils.sections(params, sectionSize);
+        List<CompletableFuture<List<R>>> futures = new ArrayList<>(sections.size());
+        Semaphore permits = new Semaphore(maxInFlight);
+        AtomicBoolean failed = new AtomicBoolean();
+        try {
+            for (List<P> section : sections) {
+                permits.acquire();
+                if (failed.get()) {
+                    break;
+                }
+                CompletableFuture<List<R>> future = call(section);
+                future.whenComplete((value, e) -> {
+                    if (e != null) {
+                        failed.set(true);
+                    }
+                    permits.release();
+                });
+                futures.add(future);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(false));
+            DataSectionUtils.rethrow(e);
+        }
+        List<R> result = new ArrayList<>();
+        try {
+            for (CompletableFuture<List<R>> future : futures) {
+                result.addAll(future.join());
+            }
+        } catch (CompletionException | CancellationException e) {
+            futures.forEach(future -> future.cancel(false));
+            DataSectionUtils.rethrow(e instanceof CompletionException ? e.getCause() : e);
+        }
+        return result;
+    }
+
+    /**
+     * 已发起的对冲次数
+     */
+    public long getHedgesFired() {
+        return hedgesFired.get();
+    }
+
+    /**
+     * 对冲请求先返回的次数
+     */
+    public long getHedgesWon() {
+        return hedgesWon.get();
+    }
+
+    /**
+     * 超时的分片数
+     */
+    public long getTimeouts() {
+        return timeouts.get();
+    }
+
+    /**
+     * 当前的对冲阈值毫秒数，样本不足或不对冲时返回 -1
+     */
+    public double getHedgeDelayMillis() {
+        long delay = hedgeDelayNanos;
+        return delay < 0 ? -1 : delay / 1e6;
+    }
+
+    /**
+     * 最近样本中指定分位数的耗时毫秒数，无样本时返回 0
+     */
+    public double getLatencyPercentileMillis(double percentile) {
+        return percentileNanos(percentile) / 1e6;
+    }
+
+    private CompletableFuture<List<R>> call(List<P> section) {
+        Slice slice = new Slice(section);
+        submit(slice, false);
+        return slice.result;
+    }
+
+    private void submit(Slice slice, boolean hedge) {
+        slice.attempts.incrementAndGet();
+        try {
+            executor.execute(() -> attempt(slice, hedge));
+        } catch (RuntimeException e) {
+            failed(slice, e);
+        }
+    }
+
+    private void attempt(Slice slice, boolean hedge) {
+        CompletableFuture<List<R>> result = slice.result;
+        if (result.isDone()) {
+            // 已有结果、超时或被取消，不再调用
+            slice.attempts.decrementAndGet();
+            return;
+        }
+        if (!hedge) {
+            startTimers(slice);
+        }
+        long start = System.nanoTime();
+        List<R> value;
+        try {
+            value = function.apply(slice.section);
+        } catch (Throwable e) {
+            failed(slice, e);
+            return;
+        }
+        record(System.nanoTime() - start);
+        slice.attempts.decrementAndGet();
+        if (!hedge) {
+            result.complete(value);
+        } else if (!result.isDone()) {
+            hedgesWon.incrementAndGet();
+            if (!result.complete(value)) {
+                hedgesWon.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * 最后一个未结束的调用失败时，分片才失败
+     */
+    private void failed(Slice slice, Throwable e) {
+        if (slice.attempts.decrementAndGet() == 0) {
+            slice.result.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * 首次调用开始执行时启动对冲和截止计时
+     */
+    private void startTimers(Slice slice) {
+        CompletableFuture<List<R>> result = slice.result;
+        List<ScheduledFuture<?>> timers = new ArrayList<>(2);
+        long delay = hedgeDelayNanos;
+        if (delay >= 0 && (deadlineNanos == 0 || delay < deadlineNanos)) {
+            timers.add(DataSectionUtils.defaultScheduler().schedule(() -> {
+                if (!result.isDone()) {
+                    hedgesFired.incrementAndGet();
+                    submit(slice, true);
+                }
+            }, delay, TimeUnit.NANOSECONDS));
+        }
+        if (deadlineNanos > 0) {
+            timers.add(DataSectionUtils.defaultScheduler().schedule(() -> {
+                // 先计数再完成，调用方拿到结果时计数已更新
+                timeouts.incrementAndGet();
+                if (!result.completeExceptionally(new TimeoutException("Section call exceeded "
+                        + TimeUnit.NANOSECONDS.toMillis(deadlineNanos) + "ms"))) {
+                    timeouts.decrementAndGet();
+                }
+            }, deadlineNanos, TimeUnit.NANOSECONDS));
+        }
+        if (!timers.isEmpty()) {
+            result.whenComplete((value, e) -> timers.forEach(timer -> timer.cancel(false)));
+        }
+    }
+
+    private void record(long nanos) {
+        long count = sampleCount.getAndIncrement();
+        samples.lazySet((int) (count % SAMPLE_SIZE), nanos);
+        if (hedgePercentile > 0 && count + 1 >= recomputeAt) {
+            recomputeAt = count + 1 + RECOMPUTE_INTERVAL;
+            hedgeDelayNanos = percentileNanos(hedgePercentile);
+        }
+    }
+
+    private long percentileNanos(double percentile) {
+        int n = (int) Math.min(sampleCount.get(), SAMPLE_SIZE);
+        if (n == 0) {
+            return 0;
+        }
+        long[] sorted = new long[n];
+        for (int i = 0; i < n; i++) {
+            sorted[i] = samples.get(i);
+        }
+        Arrays.sort(sorted);
+        return sorted[Math.min(n - 1, (int) (percentile * n))];
+    }
+
+    /**
+     * 一个分片及其未结束的调用数
+     */
+    private final class Slice {
+        private final List<P> section;
+        private final CompletableFuture<List<R>> result = new CompletableFuture<>();
+        private final AtomicInteger attempts = new AtomicInteger();
+
+        Slice(List<P> section) {
+            this.section = section;
+        }
+    }
+}
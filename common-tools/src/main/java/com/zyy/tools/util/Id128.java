@@ -0,0 +1,177 @@
+package com.zyy.tools.util;
+
+import java.io.Serializable;
+
+/**
+ * 128位紧凑ID，由两个long组成
+ * 可与32位十六进制UUID字符串、22位base62字符串互相转换，
+ * 比较顺序与十六进制字符串的字典序一致
+ */
+public final class Id128 implements Comparable<Id128>, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 十六进制长度
+     */
+    public static final int HEX_LENGTH = 32;
+
+    /**
+     * base62长度
+     */
+    public static final int BASE62_LENGTH = 22;
+
+    private static final char[] BASE62_DIGITS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz".toCharArray();
+
+    private static final byte[] DIGIT_VALUES = new byte[128];
+
+    static {
+        java.util.Arrays.fill(DIGIT_VALUES, (byte) -1);
+        for (int i = 0; i < BASE62_DIGITS.length; i++) {
+            DIGIT_VALUES[BASE62_DIGITS[i]] = (byte) i;
+        }
+    }
+
+    private final long msb;
+
+    private final long lsb;
+
+    public Id128(long msb, long lsb) {
+        this.msb = msb;
+        this.lsb = lsb;
+    }
+
+    /**
+     * 随机生成，格式与 UuidUtil.uuid32() 一致
+     */
+    public static Id128 random() {
+        long[] pair = new long[2];
+        RandomIdGenerator.secure().fill(pair);
+        return new Id128(pair[0], pair[1]);
+    }
+
+    /**
+     * 解析32位十六进制字符串，不区分大小写
+     */
+    public static Id128 parseHex(CharSequence hex) {
+        if (hex == null || hex.length() != HEX_LENGTH) {
+            throw new IllegalArgumentException("Invalid hex id: " + hex);
+        }
+        return new Id128(parseHexLong(hex, 0), parseHexLong(hex, 16));
+    }
+
+    /**
+     * 解析22位base62字符串
+     */
+    public static Id128 parseBase62(CharSequence text) {
+        if (text == null || text.length() != BASE62_LENGTH) {
+            throw new IllegalArgumentException("Invalid base62 id: " + text);
+        }
+        // 4个32位分组，高位在前
+        long[] limbs = new long[4];
+        for (int i = 0; i < BASE62_LENGTH; i++) {
+            char c = text.charAt(i);
+            int digit = c < 128 ? DIGIT_VALUES[c] : -1;
+            if (digit < 0) {
+                throw new IllegalArgumentException("Invalid base62 id: " + text);
+            }
+            long carry = digit;
+            for (int j = 3; j >= 0; j--) {
+                long v = limbs[j] * 62 + carry;
+                limbs[j] = v & 0xFFFFFFFFL;
+                carry = v >>> 32;
+            }
+            if (carry != 0) {
+                throw new IllegalArgumentException("Base62 id out of range: " + text);
+            }
+        }
+        return new Id128(limbs[0] << 32 | limbs[1], limbs[2] << 32 | limbs[3]);
+    }
+
+    public long getMostSignificantBits() {
+        return msb;
+    }
+
+    public long getLeastSignificantBits() {
+        return lsb;
+    }
+
+    /**
+     * 32位小写十六进制字符串
+     */
+    public String toHex() {
+        char[] chars = new char[HEX_LENGTH];
+        RandomIdGenerator.writeHex(msb, chars, 0, 16);
+        RandomIdGenerator.writeHex(lsb, chars, 16, 16);
+        return new String(chars);
+    }
+
+    /**
+     * 22位base62字符串，定长左补0，字典序与数值顺序一致
+     */
+    public String toBase62() {
+        long[] limbs = {msb >>> 32, msb & 0xFFFFFFFFL, lsb >>> 32, lsb & 0xFFFFFFFFL};
+        char[] chars = new char[BASE62_LENGTH];
+        for (int i = BASE62_LENGTH - 1; i >= 0; i--) {
+            long remainder = 0;
+            for (int j = 0; j < 4; j++) {
+                long v = (remainder << 32) | limbs[j];
+                limbs[j] = v / 62;
+                remainder = v % 62;
+            }
+            chars[i] = BASE62_DIGITS[(int) remainder];
+        }
+        return new String(chars);
+    }
+
+    /**
+     * 两个long的散列值，供开放寻址表使用
+     */
+    static int hash(long msb, long lsb) {
+        long h = msb * 0x9E3779B97F4A7C15L + lsb;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    @Override
+    public int compareTo(Id128 o) {
+        int c = Long.compareUnsigned(msb, o.msb);
+        return c != 0 ? c : Long.compareUnsigned(lsb, o.lsb);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Id128)) {
+            return false;
+        }
+        Id128 other = (Id128) o;
+        return msb == other.msb && lsb == other.lsb;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash(msb, lsb);
+    }
+
+    @Override
+    public String toString() {
+        return toHex();
+    }
+
+    private static long parseHexLong(CharSequence hex, int offset) {
+        long v = 0;
+        for (int i = offset; i < offset + 16; i++) {
+            int digit = Character.digit(hex.charAt(i), 16);
+            if (digit < 0) {
+                throw new IllegalArgumentException("Invalid hex id: " + hex);
+            }
+            v = (v << 4) | digit;
+        }
+        return v;
+    }
+}
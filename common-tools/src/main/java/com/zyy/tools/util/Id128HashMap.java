@@ -0,0 +1,216 @@
+package com.zyy.tools.util;
+
+import java.util.Arrays;
+
+/**
+ * 以两个long为键的开放寻址散列表，键不装箱
+ * 键成对存放在long数组中，值存放在同下标的Object数组中
+ * 非线程安全
+ *
+ * @param <V> 值类型
+ */
+public class Id128HashMap<V> {
+
+    /**
+     * 遍历回调
+     */
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+        void accept(long msb, long lsb, V value);
+    }
+
+    /**
+     * [msb, lsb] 成对存放，(0, 0) 表示空槽
+     */
+    private long[] keys;
+
+    /**
+     * 比槽位多一个，最后一个存放键 (0, 0) 的值
+     */
+    private Object[] values;
+
+    private int mask;
+
+    private int size;
+
+    private int threshold;
+
+    private boolean containsZero;
+
+    public Id128HashMap() {
+        this(16);
+    }
+
+    public Id128HashMap(int expectedSize) {
+        allocate(OpenAddressing.tableSizeFor(expectedSize));
+    }
+
+    public V get(Id128 id) {
+        return get(id.getMostSignificantBits(), id.getLeastSignificantBits());
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(long msb, long lsb) {
+        int i = indexOf(msb, lsb);
+        return i < 0 ? null : (V) values[i];
+    }
+
+    public boolean containsKey(long msb, long lsb) {
+        return indexOf(msb, lsb) >= 0;
+    }
+
+    public V put(Id128 id, V value) {
+        return put(id.getMostSignificantBits(), id.getLeastSignificantBits(), value);
+    }
+
+    /**
+     * @return 原来的值，没有则返回null
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long msb, long lsb, V value) {
+        if (msb == 0 && lsb == 0) {
+            int zero = mask + 1;
+            V old = (V) values[zero];
+            values[zero] = value;
+            if (!containsZero) {
+                containsZero = true;
+                size++;
+            }
+            return old;
+        }
+        int i = Id128.hash(msb, lsb) & mask;
+        for (; ; ) {
+            long k0 = keys[i << 1];
+            long k1 = keys[(i << 1) + 1];
+            if (k0 == 0 && k1 == 0) {
+                keys[i << 1] = msb;
+                keys[(i << 1) + 1] = lsb;
+                values[i] = value;
+                if (++size > threshold) {
+                    resize(keys.length);
+                }
+                return null;
+            }
+            if (k0 == msb && k1 == lsb) {
+                V old = (V) values[i];
+                values[i] = value;
+                return old;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(long msb, long lsb) {
+        int i = indexOf(msb, lsb);
+        if (i < 0) {
+            return null;
+        }
+        V old = (V) values[i];
+        values[i] = null;
+        size--;
+        if (i > mask) {
+            containsZero = false;
+            return old;
+        }
+        // 后移删除：把后续冲突链上的元素前移填补空槽
+        int j = i;
+        for (; ; ) {
+            j = (j + 1) & mask;
+            long k0 = keys[j << 1];
+            long k1 = keys[(j << 1) + 1];
+            if (k0 == 0 && k1 == 0) {
+                break;
+            }
+            int ideal = Id128.hash(k0, k1) & mask;
+            if (OpenAddressing.canShift(i, j, ideal, mask)) {
+                keys[i << 1] = k0;
+                keys[(i << 1) + 1] = k1;
+                values[i] = values[j];
+                i = j;
+            }
+        }
+        keys[i << 1] = 0;
+        keys[(i << 1) + 1] = 0;
+        values[i] = null;
+        return old;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(values, null);
+        containsZero = false;
+        size = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(EntryConsumer<? super V> consumer) {
+        if (containsZero) {
+            consumer.accept(0, 0, (V) values[mask + 1]);
+        }
+        for (int i = 0; i <= mask; i++) {
+            long k0 = keys[i << 1];
+            long k1 = keys[(i << 1) + 1];
+            if (k0 != 0 || k1 != 0) {
+                consumer.accept(k0, k1, (V) values[i]);
+            }
+        }
+    }
+
+    /**
+     * 键所在的下标，键 (0, 0) 为 mask + 1，不存在返回 -1
+     */
+    private int indexOf(long msb, long lsb) {
+        if (msb == 0 && lsb == 0) {
+            return containsZero ? mask + 1 : -1;
+        }
+        int i = Id128.hash(msb, lsb) & mask;
+        for (; ; ) {
+            long k0 = keys[i << 1];
+            long k1 = keys[(i << 1) + 1];
+            if (k0 == msb && k1 == lsb) {
+                return i;
+            }
+            if (k0 == 0 && k1 == 0) {
+                return -1;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity << 1];
+        values = new Object[capacity + 1];
+        mask = capacity - 1;
+        threshold = OpenAddressing.threshold(capacity);
+    }
+
+    private void resize(int newCapacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        int oldMask = mask;
+        allocate(newCapacity);
+        values[mask + 1] = oldValues[oldMask + 1];
+        for (int s = 0; s <= oldMask; s++) {
+            long k0 = oldKeys[s << 1];
+            long k1 = oldKeys[(s << 1) + 1];
+            if (k0 != 0 || k1 != 0) {
+                int i = Id128.hash(k0, k1) & mask;
+                while (keys[i << 1] != 0 || keys[(i << 1) + 1] != 0) {
+                    i = (i + 1) & mask;
+                }
+                keys[i << 1] = k0;
+                keys[(i << 1) + 1] = k1;
+                values[i] = oldValues[s];
+            }
+        }
+    }
+}
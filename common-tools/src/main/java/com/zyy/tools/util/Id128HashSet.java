@@ -0,0 +1,184 @@
+package com.zyy.tools.util;
+
+import java.util.Arrays;
+
+/**
+ * 以两个long为元素的开放寻址散列集合，不装箱
+ * 元素连续存放在一个long数组中，每个元素固定占16字节（按负载因子计算的空槽除外）
+ * 非线程安全
+ */
+public class Id128HashSet {
+
+    /**
+     * 遍历回调
+     */
+    @FunctionalInterface
+    public interface Id128Consumer {
+        void accept(long msb, long lsb);
+    }
+
+    /**
+     * [msb, lsb] 成对存放，(0, 0) 表示空槽
+     */
+    private long[] keys;
+
+    private int mask;
+
+    private int size;
+
+    private int threshold;
+
+    /**
+     * (0, 0) 单独记录
+     */
+    private boolean containsZero;
+
+    public Id128HashSet() {
+        this(16);
+    }
+
+    public Id128HashSet(int expectedSize) {
+        allocate(OpenAddressing.tableSizeFor(expectedSize));
+    }
+
+    public boolean add(Id128 id) {
+        return add(id.getMostSignificantBits(), id.getLeastSignificantBits());
+    }
+
+    public boolean add(long msb, long lsb) {
+        if (msb == 0 && lsb == 0) {
+            if (containsZero) {
+                return false;
+            }
+            containsZero = true;
+            size++;
+            return true;
+        }
+        int i = Id128.hash(msb, lsb) & mask;
+        for (; ; ) {
+            long k0 = keys[i << 1];
+            long k1 = keys[(i << 1) + 1];
+            if (k0 == 0 && k1 == 0) {
+                keys[i << 1] = msb;
+                keys[(i << 1) + 1] = lsb;
+                if (++size > threshold) {
+                    resize(keys.length);
+                }
+                return true;
+            }
+            if (k0 == msb && k1 == lsb) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    public boolean contains(Id128 id) {
+        return contains(id.getMostSignificantBits(), id.getLeastSignificantBits());
+    }
+
+    public boolean contains(long msb, long lsb) {
+        if (msb == 0 && lsb == 0) {
+            return containsZero;
+        }
+        return indexOf(msb, lsb) >= 0;
+    }
+
+    public boolean remove(long msb, long lsb) {
+        if (msb == 0 && lsb == 0) {
+            if (!containsZero) {
+                return false;
+            }
+            containsZero = false;
+            size--;
+            return true;
+        }
+        int i = indexOf(msb, lsb);
+        if (i < 0) {
+            return false;
+        }
+        // 后移删除：把后续冲突链上的元素前移填补空槽
+        int j = i;
+        for (; ; ) {
+            j = (j + 1) & mask;
+            long k0 = keys[j << 1];
+            long k1 = keys[(j << 1) + 1];
+            if (k0 == 0 && k1 == 0) {
+                break;
+            }
+            int ideal = Id128.hash(k0, k1) & mask;
+            if (OpenAddressing.canShift(i, j, ideal, mask)) {
+                keys[i << 1] = k0;
+                keys[(i << 1) + 1] = k1;
+                i = j;
+            }
+        }
+        keys[i << 1] = 0;
+        keys[(i << 1) + 1] = 0;
+        size--;
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        containsZero = false;
+        size = 0;
+    }
+
+    public void forEach(Id128Consumer consumer) {
+        if (containsZero) {
+            consumer.accept(0, 0);
+        }
+        for (int i = 0; i < keys.length; i += 2) {
+            if (keys[i] != 0 || keys[i + 1] != 0) {
+                consumer.accept(keys[i], keys[i + 1]);
+            }
+        }
+    }
+
+    private int indexOf(long msb, long lsb) {
+        int i = Id128.hash(msb, lsb) & mask;
+        for (; ; ) {
+            long k0 = keys[i << 1];
+            long k1 = keys[(i << 1) + 1];
+            if (k0 == msb && k1 == lsb) {
+                return i;
+            }
+            if (k0 == 0 && k1 == 0) {
+                return -1;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity << 1];
+        mask = capacity - 1;
+        threshold = OpenAddressing.threshold(capacity);
+    }
+
+    private void resize(int newCapacity) {
+        long[] old = keys;
+        allocate(newCapacity);
+        for (int s = 0; s < old.length; s += 2) {
+            long k0 = old[s];
+            long k1 = old[s + 1];
+            if (k0 != 0 || k1 != 0) {
+                int i = Id128.hash(k0, k1) & mask;
+                while (keys[i << 1] != 0 || keys[(i << 1) + 1] != 0) {
+                    i = (i + 1) & mask;
+                }
+                keys[i << 1] = k0;
+                keys[(i << 1) + 1] = k1;
+            }
+        }
+    }
+}
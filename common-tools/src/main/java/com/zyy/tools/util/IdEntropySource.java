@@ -0,0 +1,43 @@
+package com.zyy.tools.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * ID生成使用的随机源
+ * 安全场景使用 {@link #securePool()}，普通业务ID可使用 {@link #threadLocalRandom()}
+ */
+@FunctionalInterface
+public interface IdEntropySource {
+
+    /**
+     * 取一个64位随机数
+     */
+    long nextLong();
+
+    /**
+     * 批量填充随机数
+     *
+     * @param dest   目标数组
+     * @param offset 起始下标
+     * @param length 填充个数
+     */
+    default void nextLongs(long[] dest, int offset, int length) {
+        for (int i = offset, end = offset + length; i < end; i++) {
+            dest[i] = nextLong();
+        }
+    }
+
+    /**
+     * 带线程缓冲的SecureRandom随机源，与 UUID.randomUUID() 同样的安全强度
+     */
+    static IdEntropySource securePool() {
+        return SecureRandomPool.INSTANCE;
+    }
+
+    /**
+     * ThreadLocalRandom随机源，不可用于安全相关的ID（token、验证码等）
+     */
+    static IdEntropySource threadLocalRandom() {
+        return () -> ThreadLocalRandom.current().nextLong();
+    }
+}
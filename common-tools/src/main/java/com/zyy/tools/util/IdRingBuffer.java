@@ -0,0 +1,138 @@
+package com.zyy.tools.util;
+
+import java.io.Closeable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * 预生成ID的环形缓冲区
+ * 后台线程提前生成ID放入环形数组，取ID只有一次 getAndIncrement 和一次 getAndSet，不加锁也不等待；
+ * 剩余ID不超过低水位时唤醒后台线程补充，缓冲区取空时直接调用生成器兜底。
+ */
+public class IdRingBuffer implements Closeable {
+
+    private final Supplier<String> generator;
+
+    private final AtomicReferenceArray<String> slots;
+
+    private final int mask;
+
+    private final int lowWaterMark;
+
+    /**
+     * 下一个要读取的位置
+     */
+    private final AtomicLong readCursor = new AtomicLong();
+
+    /**
+     * 下一个要写入的位置，只由后台线程修改
+     */
+    private volatile long writeCursor;
+
+    private volatile boolean refillRequested;
+
+    private volatile boolean closed;
+
+    private final AtomicLong missCount = new AtomicLong();
+
+    private final Thread refillThread;
+
+    /**
+     * @param generator    ID生成器
+     * @param capacity     容量，向上取整为2的幂
+     * @param lowWaterMark 低水位，剩余ID不超过该值时触发补充
+     */
+    public IdRingBuffer(Supplier<String> generator, int capacity, int lowWaterMark) {
+        if (generator == null) {
+            throw new IllegalArgumentException("The generator must not be null");
+        }
+        if (capacity < 2 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("The capacity must be between 2 and " + (1 << 30));
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        if (lowWaterMark < 0 || lowWaterMark >= size) {
+            throw new IllegalArgumentException("The lowWaterMark must be between 0 and capacity");
+        }
+        this.generator = generator;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.lowWaterMark = lowWaterMark;
+        refill();
+        this.refillThread = new Thread(this::refillLoop, "id-ring-buffer-refill");
+        this.refillThread.setDaemon(true);
+        this.refillThread.start();
+    }
+
+    /**
+     * 32位UUID的缓冲区
+     */
+    public static IdRingBuffer uuid32(int capacity, int lowWaterMark) {
+        return new IdRingBuffer(UuidUtil::uuid32, capacity, lowWaterMark);
+    }
+
+    /**
+     * 取一个ID
+     */
+    public String next() {
+        long index = readCursor.getAndIncrement();
+        String id = slots.getAndSet((int) index & mask, null);
+        if (writeCursor - index <= lowWaterMark && !refillRequested && !closed) {
+            refillRequested = true;
+            LockSupport.unpark(refillThread);
+        }
+        if (id == null) {
+            missCount.incrementAndGet();
+            return generator.get();
+        }
+        return id;
+    }
+
+    /**
+     * 缓冲区中剩余的ID个数（近似值）
+     */
+    public int size() {
+        return (int) Math.max(0, writeCursor - readCursor.get());
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * 缓冲区取空后直接生成的次数
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(refillThread);
+    }
+
+    private void refillLoop() {
+        while (!closed) {
+            // 先清标记再补充，补充期间的唤醒会留下permit，park立即返回
+            refillRequested = false;
+            refill();
+            LockSupport.park(this);
+        }
+    }
+
+    private void refill() {
+        long read = readCursor.get();
+        long write = Math.max(writeCursor, read);
+        while (!closed && write - readCursor.get() < slots.length()) {
+            int slot = (int) write & mask;
+            // 槽位还没被取走，说明已经写满一圈
+            if (slots.get(slot) != null) {
+                break;
+            }
+            slots.lazySet(slot, generator.get());
+            writeCursor = ++write;
+        }
+    }
+}
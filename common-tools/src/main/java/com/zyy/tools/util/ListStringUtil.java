@@ -4,15 +4,33 @@ import com.zyy.tools.constant.SymbolConstant;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.Buffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
 
 /**
  * List工具类
  */
 public class ListStringUtil<T> {
 
+    /**
+     * 正则元字符，toList的符号含有这些字符时按正则分割
+     */
+    private static final String REGEX_META_CHARS = ".$|()[]{}^?*+\\";
+
     private ListStringUtil() {
     }
 
@@ -32,22 +50,551 @@ public class ListStringUtil<T> {
      * 字符串转换为List，默认使用逗号分割
      */
     public static List<String> toList(String str) {
-        if (StringUtils.isBlank(str)) {
-            return Collections.emptyList();
-        }
-        String[] array = str.split(SymbolConstant.COMMA);
-        return toList(array);
+        return toList(str, SymbolConstant.COMMA);
     }
 
     /**
      * 根据指定符号，将字符串转换为List
+     * 符号为正则表达式，结果与 String.split 一致；不含正则元字符时按字面量一次扫描分割。
+     * 按字面量分割任意分隔符请用 {@link #split(String, String, boolean, boolean, int)}
      */
     public static List<String> toList(String str, String symbol) {
         if (StringUtils.isBlank(str)) {
             return Collections.emptyList();
         }
-        String[] array = str.split(symbol);
-        return toList(array);
+        if (StringUtils.isEmpty(symbol) || StringUtils.containsAny(symbol, REGEX_META_CHARS)) {
+            return toList(str.split(symbol));
+        }
+        List<String> list = split(str, symbol, false, false, 0);
+        int size = list.size();
+        while (size > 0 && list.get(size - 1).isEmpty()) {
+            list.remove(--size);
+        }
+        return list;
+    }
+
+    /**
+     * 按字面量分隔符分割字符串，一次扫描直接生成List
+     * trim：去掉每段首尾空白
+     * ignoreEmpty：忽略空串（在trim之后判断）
+     * limit：最多返回的段数，最后一段包含剩余内容；小于等于0表示不限制
+     */
+    public static List<String> split(String str, String delimiter, boolean trim, boolean ignoreEmpty, int limit) {
+        checkDelimiter(delimiter);
+        List<String> list = new ArrayList<>();
+        if (str == null) {
+            return list;
+        }
+        int length = str.length();
+        int delimiterLength = delimiter.length();
+        char first = delimiter.charAt(0);
+        int start = 0;
+        while (true) {
+            int end = limit > 0 && list.size() == limit - 1 ? -1
+                    : delimiterLength == 1 ? str.indexOf(first, start) : str.indexOf(delimiter, start);
+            int tokenStart = start;
+            int tokenEnd = end < 0 ? length : end;
+            if (trim) {
+                while (tokenStart < tokenEnd && str.charAt(tokenStart) <= ' ') {
+                    tokenStart++;
+                }
+                while (tokenEnd > tokenStart && str.charAt(tokenEnd - 1) <= ' ') {
+                    tokenEnd--;
+                }
+            }
+            if (!ignoreEmpty || tokenStart < tokenEnd) {
+                list.add(str.substring(tokenStart, tokenEnd));
+            }
+            if (end < 0) {
+                return list;
+            }
+            start = end + delimiterLength;
+        }
+    }
+
+    /**
+     * 按字面量分隔符惰性分割，返回的每段是原字符序列的视图，不生成子串
+     * 视图依赖原字符序列，原序列可变时（如StringBuilder）遍历期间不要修改
+     */
+    public static Iterable<CharSequence> splitView(CharSequence str, String delimiter, boolean trim,
+                                                   boolean ignoreEmpty, int limit) {
+        checkDelimiter(delimiter);
+        if (str == null) {
+            return Collections.emptyList();
+        }
+        return () -> new SplitIterator(str, delimiter, trim, ignoreEmpty, limit);
+    }
+
+    /**
+     * 流式分割：从Reader按固定大小缓冲区读取，逐段交给consumer，内存占用只取决于缓冲区大小
+     * 分段规则与 split(str, delimiter, trim, ignoreEmpty, 0) 一致
+     * 交给consumer的字符序列复用同一缓冲区，仅在回调内有效，需要保留时调用toString
+     * 单段长度（含分隔符）超过缓冲区大小时抛出IOException
+     * 返回交给consumer的段数
+     */
+    public static long split(Reader reader, String delimiter, boolean trim, boolean ignoreEmpty, int bufferSize,
+                             Consumer<? super CharSequence> consumer) throws IOException {
+        checkDelimiter(delimiter);
+        int delimiterLength = delimiter.length();
+        if (bufferSize <= delimiterLength) {
+            throw new IllegalArgumentException("bufferSize must be greater than delimiter length: " + bufferSize);
+        }
+        char[] buffer = new char[bufferSize];
+        CharBuffer window = CharBuffer.wrap(buffer);
+        char first = delimiter.charAt(0);
+        long count = 0;
+        long consumed = 0;
+        int filled = 0;
+        int tokenStart = 0;
+        int pos = 0;
+        boolean eof = false;
+        while (true) {
+            int found = -1;
+            for (; pos + delimiterLength <= filled; pos++) {
+                if (buffer[pos] == first && regionMatches(buffer, pos, delimiter)) {
+                    found = pos;
+                    break;
+                }
+            }
+            if (found >= 0) {
+                count += emit(window, tokenStart, found, trim, ignoreEmpty, consumer);
+                pos = found + delimiterLength;
+                tokenStart = pos;
+                continue;
+            }
+            if (eof) {
+                return count + emit(window, tokenStart, filled, trim, ignoreEmpty, consumer);
+            }
+            if (tokenStart > 0) {
+                System.arraycopy(buffer, tokenStart, buffer, 0, filled - tokenStart);
+                consumed += tokenStart;
+                filled -= tokenStart;
+                pos -= tokenStart;
+                tokenStart = 0;
+            }
+            if (filled == bufferSize) {
+                throw new IOException("token at offset " + consumed + " is longer than buffer size " + bufferSize);
+            }
+            int read = reader.read(buffer, filled, bufferSize - filled);
+            if (read < 0) {
+                eof = true;
+            } else {
+                filled += read;
+            }
+        }
+    }
+
+    /**
+     * 流式分割：从字节通道按指定字符集解码后分割
+     */
+    public static long split(ReadableByteChannel channel, Charset charset, String delimiter, boolean trim,
+                             boolean ignoreEmpty, int bufferSize, Consumer<? super CharSequence> consumer)
+            throws IOException {
+        Reader reader = Channels.newReader(channel, charset.newDecoder(), bufferSize);
+        return split(reader, delimiter, trim, ignoreEmpty, bufferSize, consumer);
+    }
+
+    /**
+     * 流式拼接：逐个元素写入out，不生成完整的结果字符串
+     * 写入Writer时建议包装为BufferedWriter
+     */
+    public static void join(Iterable<?> items, String symbol, Appendable out) throws IOException {
+        join(items.iterator(), symbol, out);
+    }
+
+    /**
+     * 流式拼接：逐个元素写入out
+     */
+    public static void join(Iterator<?> items, String symbol, Appendable out) throws IOException {
+        boolean first = true;
+        while (items.hasNext()) {
+            if (!first) {
+                out.append(symbol);
+            }
+            first = false;
+            Object item = items.next();
+            if (item instanceof CharSequence) {
+                out.append((CharSequence) item);
+            } else {
+                out.append(String.valueOf(item));
+            }
+        }
+    }
+
+    private static boolean regionMatches(char[] buffer, int offset, String delimiter) {
+        for (int i = 1; i < delimiter.length(); i++) {
+            if (buffer[offset + i] != delimiter.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int emit(CharBuffer window, int start, int end, boolean trim, boolean ignoreEmpty,
+                            Consumer<? super CharSequence> consumer) {
+        if (trim) {
+            char[] chars = window.array();
+            while (start < end && chars[start] <= ' ') {
+                start++;
+            }
+            while (end > start && chars[end - 1] <= ' ') {
+                end--;
+            }
+        }
+        if (ignoreEmpty && start == end) {
+            return 0;
+        }
+        // 转成Buffer调用，兼容Java 8运行时
+        Buffer buffer = window;
+        buffer.clear();
+        buffer.position(start);
+        buffer.limit(end);
+        consumer.accept(window);
+        return 1;
+    }
+
+    /**
+     * 逗号分隔的数字串直接解析为long数组，不生成中间子串和包装对象
+     * 数字两侧允许空白，空段忽略；格式错误或溢出时抛出NumberFormatException并给出偏移量
+     */
+    public static long[] toLongArray(CharSequence str) {
+        return toLongArray(str, SymbolConstant.COMMA);
+    }
+
+    /**
+     * 根据指定分隔符，将数字串解析为long数组
+     */
+    public static long[] toLongArray(CharSequence str, String delimiter) {
+        LongBuffer buffer = new LongBuffer();
+        parseLongs(str, delimiter, buffer);
+        return buffer.toArray();
+    }
+
+    /**
+     * 根据指定分隔符逐个解析long，写入调用方的容器
+     * 返回解析出的个数
+     */
+    public static int parseLongs(CharSequence str, String delimiter, LongConsumer consumer) {
+        return parse(str, delimiter, Long.MIN_VALUE, Long.MAX_VALUE, consumer);
+    }
+
+    /**
+     * 逗号分隔的数字串直接解析为int数组
+     */
+    public static int[] toIntArray(CharSequence str) {
+        return toIntArray(str, SymbolConstant.COMMA);
+    }
+
+    /**
+     * 根据指定分隔符，将数字串解析为int数组
+     */
+    public static int[] toIntArray(CharSequence str, String delimiter) {
+        IntBuffer buffer = new IntBuffer();
+        parseInts(str, delimiter, buffer);
+        return buffer.toArray();
+    }
+
+    /**
+     * 根据指定分隔符逐个解析int，写入调用方的容器
+     * 返回解析出的个数
+     */
+    public static int parseInts(CharSequence str, String delimiter, IntConsumer consumer) {
+        return parse(str, delimiter, Integer.MIN_VALUE, Integer.MAX_VALUE, value -> consumer.accept((int) value));
+    }
+
+    /**
+     * long数组转换字符串，默认使用逗号分割
+     */
+    public static String toString(long[] array) {
+        return toString(array, SymbolConstant.COMMA);
+    }
+
+    /**
+     * 根据指定符号，long数组转换字符串，按结果长度精确分配缓冲区
+     */
+    public static String toString(long[] array, String symbol) {
+        if (array == null || array.length == 0) {
+            return "";
+        }
+        int size = symbol.length() * (array.length - 1);
+        for (long value : array) {
+            size += stringSize(value);
+        }
+        StringBuilder sb = new StringBuilder(size);
+        sb.append(array[0]);
+        for (int i = 1; i < array.length; i++) {
+            sb.append(symbol).append(array[i]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * int数组转换字符串，默认使用逗号分割
+     */
+    public static String toString(int[] array) {
+        return toString(array, SymbolConstant.COMMA);
+    }
+
+    /**
+     * 根据指定符号，int数组转换字符串，按结果长度精确分配缓冲区
+     */
+    public static String toString(int[] array, String symbol) {
+        if (array == null || array.length == 0) {
+            return "";
+        }
+        int size = symbol.length() * (array.length - 1);
+        for (int value : array) {
+            size += stringSize(value);
+        }
+        StringBuilder sb = new StringBuilder(size);
+        sb.append(array[0]);
+        for (int i = 1; i < array.length; i++) {
+            sb.append(symbol).append(array[i]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * long十进制字符串长度（含负号）
+     */
+    static int stringSize(long value) {
+        int size = 1;
+        if (value >= 0) {
+            size = 0;
+            value = -value;
+        }
+        long p = -10;
+        for (int i = 1; i < 19; i++) {
+            if (value > p) {
+                return i + size;
+            }
+            p = 10 * p;
+        }
+        return 19 + size;
+    }
+
+    /**
+     * 单次扫描解析，数字在负数区间累加以覆盖最小值
+     */
+    private static int parse(CharSequence str, String delimiter, long min, long max, LongConsumer consumer) {
+        checkDelimiter(delimiter);
+        char first = delimiter.charAt(0);
+        if ((first >= '0' && first <= '9') || first == '+' || first == '-') {
+            throw new IllegalArgumentException("delimiter must not start with a digit or sign: " + delimiter);
+        }
+        if (str == null) {
+            return 0;
+        }
+        int length = str.length();
+        int delimiterLength = delimiter.length();
+        int count = 0;
+        int i = 0;
+        while (true) {
+            while (i < length && str.charAt(i) <= ' ' && !startsWith(str, delimiter, i)) {
+                i++;
+            }
+            if (i == length) {
+                return count;
+            }
+            if (startsWith(str, delimiter, i)) {
+                i += delimiterLength;
+                continue;
+            }
+            int tokenStart = i;
+            boolean negative = false;
+            char c = str.charAt(i);
+            if (c == '-' || c == '+') {
+                negative = c == '-';
+                i++;
+            }
+            long limit = negative ? min : -max;
+            long multmin = limit / 10;
+            long result = 0;
+            int digitStart = i;
+            for (; i < length; i++) {
+                int digit = str.charAt(i) - '0';
+                if (digit < 0 || digit > 9) {
+                    break;
+                }
+                if (result < multmin) {
+                    throw numberError("number out of range", str, tokenStart);
+                }
+                result *= 10;
+                if (result < limit + digit) {
+                    throw numberError("number out of range", str, tokenStart);
+                }
+                result -= digit;
+            }
+            if (i == digitStart) {
+                throw numberError("digit expected", str, i);
+            }
+            while (i < length && str.charAt(i) <= ' ' && !startsWith(str, delimiter, i)) {
+                i++;
+            }
+            if (i < length) {
+                if (!startsWith(str, delimiter, i)) {
+                    throw numberError("delimiter expected", str, i);
+                }
+                i += delimiterLength;
+            }
+            consumer.accept(negative ? result : -result);
+            count++;
+        }
+    }
+
+    private static boolean startsWith(CharSequence str, String prefix, int offset) {
+        int length = prefix.length();
+        if (offset + length > str.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (str.charAt(offset + i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static NumberFormatException numberError(String message, CharSequence str, int offset) {
+        int end = Math.min(str.length(), offset + 20);
+        return new NumberFormatException(message + " at offset " + offset + ": \""
+                + str.subSequence(offset, end) + (end < str.length() ? "...\"" : "\""));
+    }
+
+    private static final class LongBuffer implements LongConsumer {
+
+        private long[] values = new long[16];
+
+        private int size;
+
+        @Override
+        public void accept(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size << 1);
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return size == values.length ? values : Arrays.copyOf(values, size);
+        }
+    }
+
+    private static final class IntBuffer implements IntConsumer {
+
+        private int[] values = new int[16];
+
+        private int size;
+
+        @Override
+        public void accept(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size << 1);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return size == values.length ? values : Arrays.copyOf(values, size);
+        }
+    }
+
+    private static void checkDelimiter(String delimiter) {
+        if (delimiter == null || delimiter.isEmpty()) {
+            throw new IllegalArgumentException("delimiter must not be empty");
+        }
+    }
+
+    /**
+     * 从from开始查找分隔符，String走JDK的indexOf
+     */
+    static int indexOf(CharSequence str, String delimiter, int from) {
+        if (str instanceof String) {
+            String s = (String) str;
+            return delimiter.length() == 1 ? s.indexOf(delimiter.charAt(0), from) : s.indexOf(delimiter, from);
+        }
+        char first = delimiter.charAt(0);
+        int delimiterLength = delimiter.length();
+        int max = str.length() - delimiterLength;
+        for (int i = from; i <= max; i++) {
+            if (str.charAt(i) != first) {
+                continue;
+            }
+            int j = 1;
+            while (j < delimiterLength && str.charAt(i + j) == delimiter.charAt(j)) {
+                j++;
+            }
+            if (j == delimiterLength) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static final class SplitIterator implements Iterator<CharSequence> {
+
+        private final CharSequence str;
+
+        private final String delimiter;
+
+        private final boolean trim;
+
+        private final boolean ignoreEmpty;
+
+        private final int limit;
+
+        private int start;
+
+        private int count;
+
+        private boolean done;
+
+        private CharSequence next;
+
+        SplitIterator(CharSequence str, String delimiter, boolean trim, boolean ignoreEmpty, int limit) {
+            this.str = str;
+            this.delimiter = delimiter;
+            this.trim = trim;
+            this.ignoreEmpty = ignoreEmpty;
+            this.limit = limit;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && !done) {
+                int end = limit > 0 && count == limit - 1 ? -1 : indexOf(str, delimiter, start);
+                int tokenStart = start;
+                int tokenEnd = end < 0 ? str.length() : end;
+                if (trim) {
+                    while (tokenStart < tokenEnd && str.charAt(tokenStart) <= ' ') {
+                        tokenStart++;
+                    }
+                    while (tokenEnd > tokenStart && str.charAt(tokenEnd - 1) <= ' ') {
+                        tokenEnd--;
+                    }
+                }
+                if (!ignoreEmpty || tokenStart < tokenEnd) {
+                    next = new CharSlice(str, tokenStart, tokenEnd);
+                    count++;
+                }
+                if (end < 0) {
+                    done = true;
+                } else {
+                    start = end + delimiter.length();
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public CharSequence next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            CharSequence result = next;
+            next = null;
+            return result;
+        }
     }
 
     /**
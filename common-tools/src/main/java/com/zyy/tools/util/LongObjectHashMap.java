@@ -0,0 +1,270 @@
+package com.zyy.tools.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 以long为键的开放寻址散列表，键不装箱
+ * 可选按插入顺序遍历：插入顺序另存一个long数组，有序模式下删除需在其中查找并前移后续的键，为O(n)，
+ * 频繁删除时应使用无序模式
+ * 非线程安全
+ *
+ * @param <V> 值类型
+ */
+public class LongObjectHashMap<V> {
+
+    /**
+     * 遍历回调
+     */
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+        void accept(long key, V value);
+    }
+
+    /**
+     * 0 表示空槽
+     */
+    private long[] keys;
+
+    /**
+     * 比槽位多一个，最后一个存放键 0 的值
+     */
+    private Object[] values;
+
+    private int mask;
+
+    private int size;
+
+    private int threshold;
+
+    private boolean containsZero;
+
+    /**
+     * 插入顺序，非有序模式为null
+     */
+    private long[] order;
+
+    public LongObjectHashMap() {
+        this(16, false);
+    }
+
+    /**
+     * @param expectedSize   预计条数
+     * @param insertionOrder 是否按插入顺序遍历
+     */
+    public LongObjectHashMap(int expectedSize, boolean insertionOrder) {
+        allocate(OpenAddressing.tableSizeFor(expectedSize));
+        if (insertionOrder) {
+            order = new long[Math.max(8, expectedSize)];
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        int i = indexOf(key);
+        return i < 0 ? null : (V) values[i];
+    }
+
+    public boolean containsKey(long key) {
+        return indexOf(key) >= 0;
+    }
+
+    /**
+     * @return 原来的值，没有则返回null
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (key == 0) {
+            int zero = mask + 1;
+            V old = (V) values[zero];
+            values[zero] = value;
+            if (!containsZero) {
+                containsZero = true;
+                added(key);
+            }
+            return old;
+        }
+        int i = hash(key) & mask;
+        for (; ; ) {
+            long k = keys[i];
+            if (k == 0) {
+                keys[i] = key;
+                values[i] = value;
+                added(key);
+                if (size > threshold) {
+                    resize(keys.length << 1);
+                }
+                return null;
+            }
+            if (k == key) {
+                V old = (V) values[i];
+                values[i] = value;
+                return old;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    /**
+     * 删除，有序模式下为O(n)
+     *
+     * @return 原来的值，没有则返回null
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        int i = indexOf(key);
+        if (i < 0) {
+            return null;
+        }
+        V old = (V) values[i];
+        values[i] = null;
+        size--;
+        if (order != null) {
+            int at = 0;
+            while (order[at] != key) {
+                at++;
+            }
+            System.arraycopy(order, at + 1, order, at, size - at);
+        }
+        if (i > mask) {
+            containsZero = false;
+            return old;
+        }
+        // 后移删除：把后续冲突链上的元素前移填补空槽
+        int j = i;
+        for (; ; ) {
+            j = (j + 1) & mask;
+            long k = keys[j];
+            if (k == 0) {
+                break;
+            }
+            int ideal = hash(k) & mask;
+            if (OpenAddressing.canShift(i, j, ideal, mask)) {
+                keys[i] = k;
+                values[i] = values[j];
+                i = j;
+            }
+        }
+        keys[i] = 0;
+        values[i] = null;
+        return old;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(values, null);
+        containsZero = false;
+        size = 0;
+    }
+
+    /**
+     * 遍历，有序模式下按插入顺序
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(EntryConsumer<? super V> consumer) {
+        if (order != null) {
+            for (int i = 0; i < size; i++) {
+                long key = order[i];
+                consumer.accept(key, (V) values[indexOf(key)]);
+            }
+            return;
+        }
+        if (containsZero) {
+            consumer.accept(0, (V) values[mask + 1]);
+        }
+        for (int i = 0; i <= mask; i++) {
+            if (keys[i] != 0) {
+                consumer.accept(keys[i], (V) values[i]);
+            }
+        }
+    }
+
+    /**
+     * 全部键，有序模式下按插入顺序
+     */
+    public long[] keys() {
+        long[] result = new long[size];
+        int[] index = {0};
+        forEach((key, value) -> result[index[0]++] = key);
+        return result;
+    }
+
+    /**
+     * 全部值，有序模式下按插入顺序
+     */
+    public List<V> values() {
+        List<V> result = new ArrayList<>(size);
+        forEach((key, value) -> result.add(value));
+        return result;
+    }
+
+    private void added(long key) {
+        if (order != null) {
+            if (size == order.length) {
+                order = Arrays.copyOf(order, size << 1);
+            }
+            order[size] = key;
+        }
+        size++;
+    }
+
+    /**
+     * 键所在的下标，键 0 为 mask + 1，不存在返回 -1
+     */
+    private int indexOf(long key) {
+        if (key == 0) {
+            return containsZero ? mask + 1 : -1;
+        }
+        int i = hash(key) & mask;
+        for (; ; ) {
+            long k = keys[i];
+            if (k == key) {
+                return i;
+            }
+            if (k == 0) {
+                return -1;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity + 1];
+        mask = capacity - 1;
+        threshold = OpenAddressing.threshold(capacity);
+    }
+
+    private void resize(int newCapacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        int oldMask = mask;
+        allocate(newCapacity);
+        values[mask + 1] = oldValues[oldMask + 1];
+        for (int s = 0; s <= oldMask; s++) {
+            long k = oldKeys[s];
+            if (k != 0) {
+                int i = hash(k) & mask;
+                while (keys[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = k;
+                values[i] = oldValues[s];
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.zyy.tools.util;
+
+/**
+ * 线性探测开放寻址散列表的公共计算：容量、扩容阈值、后移删除的判断
+ */
+final class OpenAddressing {
+
+    static final float LOAD_FACTOR = 0.75f;
+
+    private OpenAddressing() {
+    }
+
+    /**
+     * 容纳预计条数所需的槽位数，为2的幂
+     */
+    static int tableSizeFor(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("The expectedSize must be a positive integer or zero");
+        }
+        long capacity = Math.max(2, (long) Math.ceil(expectedSize / LOAD_FACTOR) + 1);
+        if (capacity > (1 << 30)) {
+            throw new IllegalArgumentException("The expectedSize is too large: " + expectedSize);
+        }
+        return Integer.highestOneBit((int) capacity - 1) << 1;
+    }
+
+    /**
+     * 超过该条数时扩容
+     */
+    static int threshold(int capacity) {
+        return (int) (capacity * LOAD_FACTOR);
+    }
+
+    /**
+     * 后移删除时，槽位 j 上理想位置为 ideal 的元素能否前移到空槽 hole
+     */
+    static boolean canShift(int hole, int j, int ideal, int mask) {
+        return ((j - ideal) & mask) >= ((j - hole) & mask);
+    }
+}
@@ -0,0 +1,358 @@
+package com.zyy.tools.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 批量生成二维码
+ * 调用线程读取输入并提交渲染，渲染在有界线程池中并行执行，单独的I/O线程按输入顺序写出到目录或ZIP流。
+ * 已提交未写出的二维码不超过maxInFlight个，输入读取会被阻塞（背压），图片占用的内存与批量大小无关。
+ * 文件名按输入顺序确定：使用给定名称（去掉路径字符，补.png后缀），为空时使用序号，重名时追加 -2、-3 ...
+ * 去重需要保存给定的文件名，使用序号的输入每个只占1位，全部使用序号时十万个约12KB。
+ */
+public final class QRCodeBatch {
+
+    /**
+     * 写出进度回调，在I/O线程中按输入顺序调用
+     */
+    public interface Listener {
+        /**
+         * @param index 输入中的序号，从0开始，也是已写出的个数减1
+         * @param name  写出的文件名
+         */
+        void onWritten(long index, String name);
+    }
+
+    private static final CompletableFuture<Item> END = CompletableFuture.completedFuture(null);
+
+    private final QRCodeOptions options;
+
+    private final Executor executor;
+
+    private final int parallelism;
+
+    private final int maxInFlight;
+
+    private final Listener listener;
+
+    /**
+     * 每次批量生成时创建parallelism个线程，结束后关闭
+     *
+     * @param options     生成参数
+     * @param parallelism 渲染线程数
+     * @param maxInFlight 已提交未写出的最大个数
+     * @param listener    进度回调，可为null
+     */
+    public QRCodeBatch(QRCodeOptions options, int parallelism, int maxInFlight, Listener listener) {
+        this(options, null, parallelism, maxInFlight, listener);
+    }
+
+    /**
+     * 使用调用方的线程池渲染
+     *
+     * @param options     生成参数
+     * @param executor    渲染线程池
+     * @param maxInFlight 已提交未写出的最大个数
+     * @param listener    进度回调，可为null
+     */
+    public QRCodeBatch(QRCodeOptions options, Executor executor, int maxInFlight, Listener listener) {
+        this(options, executor, 0, maxInFlight, listener);
+    }
+
+    private QRCodeBatch(QRCodeOptions options, Executor executor, int parallelism, int maxInFlight,
+                        Listener listener) {
+        if (executor == null && parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism must be a positive integer");
+        }
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("The maxInFlight must be a positive integer");
+        }
+        this.options = options;
+        this.executor = executor;
+        this.parallelism = parallelism;
+        this.maxInFlight = maxInFlight;
+        this.listener = listener;
+    }
+
+    /**
+     * 生成到目录，同名文件会被覆盖
+     *
+     * @param items 内容 -> 文件名（可为null）
+     * @param dir   存放目录，不存在时创建
+     * @return 生成的个数
+     */
+    public long writeToDirectory(Iterator<? extends Map.Entry<String, String>> items, Path dir) throws IOException {
+        Files.createDirectories(dir);
+        return run(items, item -> Files.write(dir.resolve(item.name), item.png));
+    }
+
+    /**
+     * 生成到目录
+     */
+    public long writeToDirectory(Stream<? extends Map.Entry<String, String>> items, Path dir) throws IOException {
+        return writeToDirectory(items.iterator(), dir);
+    }
+
+    /**
+     * 生成到ZIP流，条目按输入顺序写出；PNG本身已压缩，条目不再压缩
+     * 结束时finish但不关闭output
+     *
+     * @param items  内容 -> 文件名（可为null）
+     * @param output 输出流
+     * @return 生成的个数
+     */
+    public long writeToZip(Iterator<? extends Map.Entry<String, String>> items, OutputStream output)
+            throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(output);
+        CRC32 crc = new CRC32();
+        long count = run(items, item -> {
+            ZipEntry entry = new ZipEntry(item.name);
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(item.png.length);
+            crc.reset();
+            crc.update(item.png);
+            entry.setCrc(crc.getValue());
+            zip.putNextEntry(entry);
+            zip.write(item.png);
+            zip.closeEntry();
+        });
+        zip.finish();
+        return count;
+    }
+
+    /**
+     * 生成到ZIP流
+     */
+    public long writeToZip(Stream<? extends Map.Entry<String, String>> items, OutputStream output)
+            throws IOException {
+        return writeToZip(items.iterator(), output);
+    }
+
+    private long run(Iterator<? extends Map.Entry<String, String>> items, Sink sink) throws IOException {
+        ExecutorService ownExecutor = null;
+        Executor renderExecutor = executor;
+        if (renderExecutor == null) {
+            AtomicInteger index = new AtomicInteger();
+            ownExecutor = Executors.newFixedThreadPool(parallelism, r -> {
+                Thread thread = new Thread(r, "qr-batch-" + index.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            renderExecutor = ownExecutor;
+        }
+        Semaphore permits = new Semaphore(maxInFlight);
+        BlockingQueue<CompletableFuture<Item>> queue = new LinkedBlockingQueue<>();
+        Writer writer = new Writer(queue, permits, sink);
+        Thread io = new Thread(writer, "qr-batch-io");
+        io.setDaemon(true);
+        io.start();
+        Throwable producerError = null;
+        try {
+            FileNames names = new FileNames();
+            long index = 0;
+            while (writer.failure == null && items.hasNext()) {
+                Map.Entry<String, String> entry = items.next();
+                String content = entry.getKey();
+                String name = names.next(entry.getValue(), index++);
+                permits.acquire();
+                queue.add(CompletableFuture.supplyAsync(() -> new Item(name, render(content)), renderExecutor));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            producerError = e;
+        } catch (RuntimeException | Error e) {
+            producerError = e;
+        } finally {
+            queue.add(END);
+            try {
+                io.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                writer.failure = e;
+            }
+            if (ownExecutor != null) {
+                ownExecutor.shutdownNow();
+            }
+        }
+        Throwable failure = writer.failure != null ? writer.failure : producerError;
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        }
+        if (failure != null) {
+            throw new IOException("QR batch failed after " + writer.written + " items", failure);
+        }
+        return writer.written;
+    }
+
+    private byte[] render(String content) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+        try {
+            QRCodeUtils.encode(content, out, options);
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 按输入顺序分配文件名：去掉路径字符，补.png后缀，重名时追加序号
+     * 只保存给定名称和追加过序号的名称；使用序号的输入每个只记1位，序号名称之间不会重名
+     */
+    static final class FileNames {
+
+        private final Set<String> used = new HashSet<>();
+
+        /**
+         * 使用序号作为文件名的输入下标
+         */
+        private final BitSet numbered = new BitSet();
+
+        String next(String name, long index) {
+            if (name == null || name.trim().isEmpty()) {
+                String base = sequenceName(index);
+                if (!used.contains(base + ".png")) {
+                    if (index < Integer.MAX_VALUE) {
+                        numbered.set((int) index);
+                    }
+                    return base + ".png";
+                }
+                return suffixed(base);
+            }
+            StringBuilder sb = new StringBuilder(name.length());
+            for (int i = 0; i < name.length(); i++) {
+                char c = name.charAt(i);
+                sb.append(c < ' ' || "\\/:*?\"<>|".indexOf(c) >= 0 ? '_' : c);
+            }
+            String base = sb.toString().trim();
+            if (base.startsWith(".")) {
+                base = "_" + base.substring(1);
+            }
+            if (base.regionMatches(true, base.length() - 4, ".png", 0, 4)) {
+                base = base.substring(0, base.length() - 4);
+            }
+            String candidate = base + ".png";
+            if (used.add(candidate.toLowerCase()) && !numberedBefore(base, index)) {
+                return candidate;
+            }
+            return suffixed(base);
+        }
+
+        private String suffixed(String base) {
+            String candidate;
+            for (int n = 2; ; n++) {
+                candidate = base + "-" + n + ".png";
+                if (used.add(candidate.toLowerCase())) {
+                    return candidate;
+                }
+            }
+        }
+
+        /**
+         * 给定名称是否与之前某个输入的序号名称相同
+         */
+        private boolean numberedBefore(String base, long index) {
+            if (base.length() < 8 || base.length() > 10) {
+                return false;
+            }
+            for (int i = 0; i < base.length(); i++) {
+                if (base.charAt(i) < '0' || base.charAt(i) > '9') {
+                    return false;
+                }
+            }
+            long n = Long.parseLong(base);
+            return n < index && n < Integer.MAX_VALUE && numbered.get((int) n) && sequenceName(n).equals(base);
+        }
+
+        private static String sequenceName(long index) {
+            return String.format("%08d", index);
+        }
+    }
+
+    private interface Sink {
+        void write(Item item) throws IOException;
+    }
+
+    private static final class Item {
+
+        private final String name;
+
+        private final byte[] png;
+
+        Item(String name, byte[] png) {
+            this.name = name;
+            this.png = png;
+        }
+    }
+
+    /**
+     * I/O阶段：按提交顺序等待渲染结果并写出，出错后只取消剩余任务
+     */
+    private final class Writer implements Runnable {
+
+        private final BlockingQueue<CompletableFuture<Item>> queue;
+
+        private final Semaphore permits;
+
+        private final Sink sink;
+
+        private volatile Throwable failure;
+
+        private volatile long written;
+
+        Writer(BlockingQueue<CompletableFuture<Item>> queue, Semaphore permits, Sink sink) {
+            this.queue = queue;
+            this.permits = permits;
+            this.sink = sink;
+        }
+
+        @Override
+        public void run() {
+            try {
+                CompletableFuture<Item> future;
+                while ((future = queue.take()) != END) {
+                    if (failure != null) {
+                        future.cancel(false);
+                        permits.release();
+                        continue;
+                    }
+                    try {
+                        Item item = future.join();
+                        sink.write(item);
+                        if (listener != null) {
+                            listener.onWritten(written, item.name);
+                        }
+                        written++;
+                    } catch (CompletionException e) {
+                        failure = e.getCause();
+                    } catch (Throwable e) {
+                        failure = e;
+                    }
+                    permits.release();
+                }
+            } catch (InterruptedException e) {
+                failure = e;
+            }
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.zyy.tools.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 二维码PNG字节缓存，按内容 + 生成参数缓存最终的PNG
+ * 按字节数（PNG长度 + 内容字符数 * 2）限制容量，LRU淘汰；同一key并发未命中时只生成一次，其余线程等待结果。
+ * 命中时只需一次 OutputStream.write
+ */
+public final class QRCodeCache {
+
+    private final long maxBytes;
+
+    private final LinkedHashMap<Key, byte[]> entries = new LinkedHashMap<>(64, 0.75f, true);
+
+    private final ConcurrentHashMap<Key, CompletableFuture<byte[]>> loading = new ConcurrentHashMap<>();
+
+    private long bytes;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * @param maxBytes 缓存的最大字节数
+     */
+    public QRCodeCache(long maxBytes) {
+        if (maxBytes < 1) {
+            throw new IllegalArgumentException("The maxBytes must be a positive integer");
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * 生成二维码到输出流，命中缓存时直接写出缓存的PNG
+     *
+     * @param content 内容
+     * @param options 生成参数
+     * @param output  输出流
+     * @throws Exception
+     */
+    public void encode(String content, QRCodeOptions options, OutputStream output) throws Exception {
+        byte[] png = get(content, options);
+        output.write(png, 0, png.length);
+    }
+
+    /**
+     * 取PNG字节，调用方不能修改返回的数组
+     */
+    byte[] get(String content, QRCodeOptions options) throws Exception {
+        Key key = new Key(content, options);
+        byte[] png = lookup(key);
+        if (png != null) {
+            hits.incrementAndGet();
+            return png;
+        }
+        CompletableFuture<byte[]> future = new CompletableFuture<>();
+        CompletableFuture<byte[]> existing = loading.putIfAbsent(key, future);
+        if (existing != null) {
+            // 其他线程正在生成，等待其结果
+            hits.incrementAndGet();
+            return await(existing);
+        }
+        try {
+            png = lookup(key);
+            if (png == null) {
+                misses.incrementAndGet();
+                png = render(content, options);
+                store(key, png);
+            } else {
+                hits.incrementAndGet();
+            }
+            future.complete(png);
+            return png;
+        } catch (Exception | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, future);
+        }
+    }
+
+    /**
+     * 命中次数，包括等待其他线程生成的调用
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * 未命中（实际生成）的次数
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * 淘汰的条目数
+     */
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * 当前占用的字节数
+     */
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * 当前条目数
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * 清空缓存，不计入淘汰数
+     */
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    private synchronized byte[] lookup(Key key) {
+        return entries.get(key);
+    }
+
+    private synchronized void store(Key key, byte[] png) {
+        long weight = weight(key, png);
+        if (weight > maxBytes) {
+            return;
+        }
+        byte[] previous = entries.put(key, png);
+        if (previous != null) {
+            bytes -= weight(key, previous);
+        }
+        bytes += weight;
+        Iterator<Map.Entry<Key, byte[]>> it = entries.entrySet().iterator();
+        while (bytes > maxBytes && it.hasNext()) {
+            Map.Entry<Key, byte[]> eldest = it.next();
+            bytes -= weight(eldest.getKey(), eldest.getValue());
+            it.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private static long weight(Key key, byte[] png) {
+        return png.length + 2L * key.content.length();
+    }
+
+    private static byte[] render(String content, QRCodeOptions options) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+        QRCodeUtils.encode(content, out, options);
+        return out.toByteArray();
+    }
+
+    private static byte[] await(CompletableFuture<byte[]> future) throws Exception {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        }
+    }
+
+    private static final class Key {
+
+        private final String content;
+
+        private final QRCodeOptions options;
+
+        private final int hash;
+
+        Key(String content, QRCodeOptions options) {
+            this.content = Objects.requireNonNull(content);
+            this.options = Objects.requireNonNull(options);
+            this.hash = 31 * content.hashCode() + options.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hash == other.hash && content.equals(other.content) && options.equals(other.options);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.zyy.tools.util;
+
+import cn.hutool.core.util.HexUtil;
+import org.springframework.core.io.ClassPathResource;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 二维码LOGO
+ * 同一LOGO按（来源、尺寸、是否压缩）只解码、缩放一次，缓存合成好的贴图（白色圆底 + LOGO），
+ * 每个二维码只需一次drawImage
+ */
+public final class QRCodeLogo {
+
+    /**
+     * 默认LOGO
+     */
+    public static final QRCodeLogo DEFAULT = classpath("static/qrLogo.png");
+
+    private static final int MAX_CACHED = 64;
+
+    private static final Map<PatchKey, BufferedImage> PATCHES = new LinkedHashMap<PatchKey, BufferedImage>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<PatchKey, BufferedImage> eldest) {
+            return size() > MAX_CACHED;
+        }
+    };
+
+    private final Object key;
+
+    private final Source source;
+
+    private volatile String fingerprint;
+
+    private QRCodeLogo(Object key, Source source) {
+        this.key = key;
+        this.source = source;
+    }
+
+    /**
+     * classpath下的LOGO
+     */
+    public static QRCodeLogo classpath(String resource) {
+        return new QRCodeLogo("classpath:" + resource, () -> new ClassPathResource(resource).getInputStream());
+    }
+
+    /**
+     * 图片字节内容作为LOGO，内容相同的LOGO共用缓存
+     */
+    public static QRCodeLogo of(byte[] image) {
+        byte[] copy = image.clone();
+        return new QRCodeLogo(new BytesKey(copy), () -> new ByteArrayInputStream(copy));
+    }
+
+    /**
+     * 文件作为LOGO
+     * 实例按创建时文件的修改时间和大小区分，同一实例不会检查文件变化；文件修改后需重新调用本方法取新的实例
+     */
+    public static QRCodeLogo of(Path path) throws IOException {
+        Path file = path.toAbsolutePath();
+        String key = "file:" + file + ":" + Files.getLastModifiedTime(file).toMillis() + ":" + Files.size(file);
+        return new QRCodeLogo(key, () -> Files.newInputStream(file));
+    }
+
+    /**
+     * 文件作为LOGO
+     */
+    public static QRCodeLogo of(String path) throws IOException {
+        return of(Paths.get(path));
+    }
+
+    /**
+     * 取缩放合成好的贴图，needCompress时宽高不超过maxWidth、maxHeight
+     */
+    BufferedImage patch(int maxWidth, int maxHeight, boolean needCompress) throws IOException {
+        PatchKey patchKey = new PatchKey(key, needCompress ? maxWidth : 0, needCompress ? maxHeight : 0);
+        BufferedImage patch;
+        synchronized (PATCHES) {
+            patch = PATCHES.get(patchKey);
+        }
+        if (patch == null) {
+            patch = render(patchKey.maxWidth, patchKey.maxHeight, needCompress);
+            synchronized (PATCHES) {
+                BufferedImage existing = PATCHES.putIfAbsent(patchKey, patch);
+                if (existing != null) {
+                    patch = existing;
+                }
+            }
+        }
+        return patch;
+    }
+
+    /**
+     * 清空缓存
+     */
+    public static void clearCache() {
+        synchronized (PATCHES) {
+            PATCHES.clear();
+        }
+    }
+
+    private BufferedImage render(int maxWidth, int maxHeight, boolean needCompress) throws IOException {
+        BufferedImage src;
+        try (InputStream in = source.open()) {
+            src = ImageIO.read(in);
+        }
+        if (src == null) {
+            throw new IOException("Unsupported logo image: " + key);
+        }
+        Image logo = src;
+        int width = src.getWidth();
+        int height = src.getHeight();
+        if (needCompress && (width > maxWidth || height > maxHeight)) {
+            width = Math.min(width, maxWidth);
+            height = Math.min(height, maxHeight);
+            logo = src.getScaledInstance(width, height, Image.SCALE_SMOOTH);
+        }
+        BufferedImage patch = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = patch.createGraphics();
+        // 与直接画在二维码上一致：白色圆底，再画LOGO
+        g.fillOval(0, 0, width, height);
+        g.drawImage(logo, 0, 0, width, height, null);
+        g.dispose();
+        return patch;
+    }
+
+    /**
+     * 稳定的标识，字节内容的LOGO为内容的SHA-256，用于生成ETag
+     */
+    String fingerprint() {
+        String result = fingerprint;
+        if (result == null) {
+            if (key instanceof BytesKey) {
+                try {
+                    MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                    digest.update(((BytesKey) key).bytes);
+                    result = "bytes:" + HexUtil.encodeHexStr(digest.digest());
+                } catch (NoSuchAlgorithmException e) {
+                    throw new IllegalStateException(e);
+                }
+            } else {
+                result = key.toString();
+            }
+            fingerprint = result;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof QRCodeLogo && key.equals(((QRCodeLogo) o).key);
+    }
+
+    @Override
+    public int hashCode() {
+        return key.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return key.toString();
+    }
+
+    private interface Source {
+        InputStream open() throws IOException;
+    }
+
+    /**
+     * 字节内容的key，哈希值只计算一次
+     */
+    private static final class BytesKey {
+
+        private final byte[] bytes;
+
+        private final int hash;
+
+        BytesKey(byte[] bytes) {
+            this.bytes = bytes;
+            this.hash = Arrays.hashCode(bytes);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o == this || o instanceof BytesKey && hash == ((BytesKey) o).hash
+                    && Arrays.equals(bytes, ((BytesKey) o).bytes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            return "bytes:" + bytes.length + ":" + hash;
+        }
+    }
+
+    private static final class PatchKey {
+
+        private final Object logo;
+
+        private final int maxWidth;
+
+        private final int maxHeight;
+
+        PatchKey(Object logo, int maxWidth, int maxHeight) {
+            this.logo = logo;
+            this.maxWidth = maxWidth;
+            this.maxHeight = maxHeight;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof PatchKey)) {
+                return false;
+            }
+            PatchKey other = (PatchKey) o;
+            return maxWidth == other.maxWidth && maxHeight == other.maxHeight && logo.equals(other.logo);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(logo, maxWidth, maxHeight);
+        }
+    }
+}
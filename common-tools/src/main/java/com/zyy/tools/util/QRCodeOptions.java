@@ -0,0 +1,139 @@
+package com.zyy.tools.util;
+
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+
+import java.awt.image.BufferedImage;
+import java.util.Objects;
+
+/**
+ * 二维码生成参数，不可变，with方法返回新对象
+ * 默认：500像素，边距1，纠错级别H，TYPE_INT_RGB，默认LOGO并压缩
+ */
+public final class QRCodeOptions {
+
+    private static final QRCodeOptions DEFAULTS = new QRCodeOptions(500, 1, ErrorCorrectionLevel.H,
+            BufferedImage.TYPE_INT_RGB, QRCodeLogo.DEFAULT, true);
+
+    private final int size;
+
+    private final int margin;
+
+    private final ErrorCorrectionLevel errorCorrection;
+
+    private final int imageType;
+
+    private final QRCodeLogo logo;
+
+    private final boolean compressLogo;
+
+    private QRCodeOptions(int size, int margin, ErrorCorrectionLevel errorCorrection, int imageType,
+                          QRCodeLogo logo, boolean compressLogo) {
+        this.size = size;
+        this.margin = margin;
+        this.errorCorrection = errorCorrection;
+        this.imageType = imageType;
+        this.logo = logo;
+        this.compressLogo = compressLogo;
+    }
+
+    /**
+     * 默认参数，与原先固定的常量一致
+     */
+    public static QRCodeOptions defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * 二维码宽高像素
+     */
+    public QRCodeOptions withSize(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("The size must be a positive integer");
+        }
+        return new QRCodeOptions(size, margin, errorCorrection, imageType, logo, compressLogo);
+    }
+
+    /**
+     * 边距，单位为模块
+     */
+    public QRCodeOptions withMargin(int margin) {
+        if (margin < 0) {
+            throw new IllegalArgumentException("The margin must be a positive integer or zero");
+        }
+        return new QRCodeOptions(size, margin, errorCorrection, imageType, logo, compressLogo);
+    }
+
+    /**
+     * 纠错级别
+     */
+    public QRCodeOptions withErrorCorrection(ErrorCorrectionLevel errorCorrection) {
+        return new QRCodeOptions(size, margin, Objects.requireNonNull(errorCorrection), imageType, logo,
+                compressLogo);
+    }
+
+    /**
+     * 图片类型，支持 TYPE_INT_RGB 和 TYPE_BYTE_BINARY（每像素1位，不能带LOGO）
+     */
+    public QRCodeOptions withImageType(int imageType) {
+        if (imageType != BufferedImage.TYPE_INT_RGB && imageType != BufferedImage.TYPE_BYTE_BINARY) {
+            throw new IllegalArgumentException("Unsupported image type: " + imageType);
+        }
+        return new QRCodeOptions(size, margin, errorCorrection, imageType, logo, compressLogo);
+    }
+
+    /**
+     * LOGO，为null时不插入；compress为true时LOGO宽高不超过二维码的1/5
+     */
+    public QRCodeOptions withLogo(QRCodeLogo logo, boolean compress) {
+        return new QRCodeOptions(size, margin, errorCorrection, imageType, logo, compress);
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getMargin() {
+        return margin;
+    }
+
+    public ErrorCorrectionLevel getErrorCorrection() {
+        return errorCorrection;
+    }
+
+    public int getImageType() {
+        return imageType;
+    }
+
+    public QRCodeLogo getLogo() {
+        return logo;
+    }
+
+    public boolean isCompressLogo() {
+        return compressLogo;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof QRCodeOptions)) {
+            return false;
+        }
+        QRCodeOptions other = (QRCodeOptions) o;
+        return size == other.size && margin == other.margin && imageType == other.imageType
+                && compressLogo == other.compressLogo && errorCorrection == other.errorCorrection
+                && Objects.equals(logo, other.logo);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(size, margin, errorCorrection, imageType, logo, compressLogo);
+    }
+
+    @Override
+    public String toString() {
+        return "QRCodeOptions{size=" + size + ", margin=" + margin + ", errorCorrection=" + errorCorrection
+                + ", imageType=" + imageType + ", logo=" + logo + ", compressLogo=" + compressLogo + "}";
+    }
+}
@@ -0,0 +1,145 @@
+package com.zyy.tools.util;
+
+import com.google.zxing.common.BitArray;
+import com.google.zxing.common.BitMatrix;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * 模块矩阵直接编码为1位灰度PNG（0黑1白），不经过BufferedImage和ImageIO
+ * 逐行打包后送入Deflater，压缩输出攒满一块即写出一个IDAT，内存占用只有一行和一个输出块
+ */
+final class QRCodePngEncoder {
+
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    private static final byte[] IHDR = "IHDR".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] IDAT = "IDAT".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] IEND = "IEND".getBytes(StandardCharsets.US_ASCII);
+
+    private static final int CHUNK_SIZE = 8 * 1024;
+
+    /**
+     * Deflater占用本地内存，每个线程复用一个
+     */
+    private static final ThreadLocal<Deflater> DEFLATER = ThreadLocal.withInitial(Deflater::new);
+
+    private QRCodePngEncoder() {
+    }
+
+    /**
+     * 写出PNG
+     *
+     * @param bitMatrix        模块矩阵，true为黑
+     * @param output           输出流，不关闭
+     * @param compressionLevel Deflater压缩级别 0-9，-1为默认
+     */
+    static void write(BitMatrix bitMatrix, OutputStream output, int compressionLevel) throws IOException {
+        int width = bitMatrix.getWidth();
+        int height = bitMatrix.getHeight();
+        int stride = (width + 7) >> 3;
+        CRC32 crc = new CRC32();
+        output.write(SIGNATURE);
+
+        byte[] header = new byte[13];
+        putInt(header, 0, width);
+        putInt(header, 4, height);
+        // 位深1，灰度，deflate压缩，标准过滤，不隔行
+        header[8] = 1;
+        writeChunk(output, crc, IHDR, header, header.length);
+
+        Deflater deflater = DEFLATER.get();
+        deflater.reset();
+        deflater.setLevel(compressionLevel);
+        byte[] chunk = new byte[CHUNK_SIZE];
+        int chunkLength = 0;
+        // 每行以过滤类型0开头
+        byte[] line = new byte[stride + 1];
+        BitArray row = new BitArray(width);
+        BitArray previous = new BitArray(width);
+        for (int y = 0; y < height; y++) {
+            row = bitMatrix.getRow(y, row);
+            if (y == 0 || !row.equals(previous)) {
+                packRow(row, width, line, 1);
+                BitArray swap = previous;
+                previous = row;
+                row = swap;
+            }
+            deflater.setInput(line);
+            while (!deflater.needsInput()) {
+                chunkLength += deflater.deflate(chunk, chunkLength, CHUNK_SIZE - chunkLength);
+                if (chunkLength == CHUNK_SIZE) {
+                    writeChunk(output, crc, IDAT, chunk, chunkLength);
+                    chunkLength = 0;
+                }
+            }
+        }
+        deflater.finish();
+        while (!deflater.finished()) {
+            chunkLength += deflater.deflate(chunk, chunkLength, CHUNK_SIZE - chunkLength);
+            if (chunkLength == CHUNK_SIZE || deflater.finished()) {
+                writeChunk(output, crc, IDAT, chunk, chunkLength);
+                chunkLength = 0;
+            }
+        }
+        writeChunk(output, crc, IEND, chunk, 0);
+    }
+
+    /**
+     * 一行模块打包为每像素1位（0黑1白，高位在前），写入dest[offset...]
+     */
+    static void packRow(BitArray row, int width, byte[] dest, int offset) {
+        Arrays.fill(dest, offset, offset + ((width + 7) >> 3), (byte) 0xFF);
+        int x = row.getNextSet(0);
+        while (x < width) {
+            int end = row.getNextUnset(x);
+            clearBits(dest, offset, x, end);
+            x = row.getNextSet(end);
+        }
+    }
+
+    /**
+     * 将[from, to)的像素位清零（黑色）
+     */
+    private static void clearBits(byte[] bytes, int offset, int from, int to) {
+        int first = from >> 3;
+        int last = (to - 1) >> 3;
+        int headMask = 0xFF >>> (from & 7);
+        int tailMask = 0xFF << (7 - ((to - 1) & 7)) & 0xFF;
+        if (first == last) {
+            bytes[offset + first] &= (byte) ~(headMask & tailMask);
+            return;
+        }
+        bytes[offset + first] &= (byte) ~headMask;
+        Arrays.fill(bytes, offset + first + 1, offset + last, (byte) 0);
+        bytes[offset + last] &= (byte) ~tailMask;
+    }
+
+    private static void writeChunk(OutputStream output, CRC32 crc, byte[] type, byte[] data, int length)
+            throws IOException {
+        byte[] intBuffer = new byte[4];
+        putInt(intBuffer, 0, length);
+        output.write(intBuffer);
+        output.write(type);
+        output.write(data, 0, length);
+        crc.reset();
+        crc.update(type);
+        crc.update(data, 0, length);
+        putInt(intBuffer, 0, (int) crc.getValue());
+        output.write(intBuffer);
+    }
+
+    private static void putInt(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+}
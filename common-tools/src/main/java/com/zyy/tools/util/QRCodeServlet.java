@@ -0,0 +1,211 @@
+package com.zyy.tools.util;
+
+import cn.hutool.core.util.HexUtil;
+import com.google.zxing.WriterException;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * 二维码接口
+ * 参数：content（必填）、size、margin、ecc（L/M/Q/H）、format（png/svg，默认png）
+ * 相同内容和参数的二维码不变，按内容 + 参数生成强ETag，If-None-Match匹配时直接返回304，不生成二维码；
+ * 成功和304响应带长期缓存头，错误响应不带，成功响应带准确的Content-Length
+ */
+public class QRCodeServlet extends HttpServlet {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 生成算法变化时修改，使旧的ETag失效
+     */
+    private static final String ETAG_VERSION = "1";
+
+    private static final int MAX_SIZE = 2000;
+
+    private static final int MAX_MARGIN = 20;
+
+    private static final long DEFAULT_MAX_AGE = 365L * 24 * 60 * 60;
+
+    private final transient QRCodeOptions options;
+
+    private final transient QRCodeCache cache;
+
+    private final long maxAgeSeconds;
+
+    /**
+     * 默认参数（与 QRCodeUtils.encode(content, output) 一致），不缓存PNG
+     */
+    public QRCodeServlet() {
+        this(QRCodeOptions.defaults(), null, DEFAULT_MAX_AGE);
+    }
+
+    /**
+     * @param options       基础参数，请求中的size、margin、ecc会覆盖
+     * @param cache         PNG缓存，可为null
+     * @param maxAgeSeconds Cache-Control的max-age
+     */
+    public QRCodeServlet(QRCodeOptions options, QRCodeCache cache, long maxAgeSeconds) {
+        if (maxAgeSeconds < 0) {
+            throw new IllegalArgumentException("The maxAgeSeconds must be a positive integer or zero");
+        }
+        this.options = options;
+        this.cache = cache;
+        this.maxAgeSeconds = maxAgeSeconds;
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        String content = request.getParameter("content");
+        if (content == null || content.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "content is required");
+            return;
+        }
+        String format = request.getParameter("format");
+        boolean svg = "svg".equalsIgnoreCase(format);
+        if (format != null && !svg && !"png".equalsIgnoreCase(format)) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Unsupported format: " + format);
+            return;
+        }
+        QRCodeOptions requestOptions;
+        try {
+            requestOptions = requestOptions(request);
+            if (svg) {
+                requestOptions = requestOptions.withLogo(null, false);
+            }
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+
+        String etag = etag(content, requestOptions, svg);
+        if (matches(request.getHeader("If-None-Match"), etag)) {
+            setCacheHeaders(response, etag);
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        byte[] body;
+        try {
+            body = render(content, requestOptions, svg);
+        } catch (WriterException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ServletException(e);
+        }
+        // 生成成功后才设置缓存头，避免错误响应被长期缓存
+        setCacheHeaders(response, etag);
+        response.setContentType(svg ? "image/svg+xml" : "image/png");
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body, 0, body.length);
+    }
+
+    private void setCacheHeaders(HttpServletResponse response, String etag) {
+        response.setHeader("ETag", etag);
+        response.setHeader("Cache-Control", "public, max-age=" + maxAgeSeconds + ", immutable");
+    }
+
+    private QRCodeOptions requestOptions(HttpServletRequest request) {
+        QRCodeOptions result = options;
+        String size = request.getParameter("size");
+        if (size != null) {
+            int value = parseInt("size", size);
+            if (value > MAX_SIZE) {
+                throw new IllegalArgumentException("size must not exceed " + MAX_SIZE);
+            }
+            result = result.withSize(value);
+        }
+        String margin = request.getParameter("margin");
+        if (margin != null) {
+            int value = parseInt("margin", margin);
+            if (value > MAX_MARGIN) {
+                throw new IllegalArgumentException("margin must not exceed " + MAX_MARGIN);
+            }
+            result = result.withMargin(value);
+        }
+        String ecc = request.getParameter("ecc");
+        if (ecc != null) {
+            try {
+                result = result.withErrorCorrection(ErrorCorrectionLevel.valueOf(ecc.toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported ecc: " + ecc);
+            }
+        }
+        return result;
+    }
+
+    private static int parseInt(String name, String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+    }
+
+    private byte[] render(String content, QRCodeOptions requestOptions, boolean svg) throws Exception {
+        if (!svg && cache != null) {
+            return cache.get(content, requestOptions);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+        if (svg) {
+            QRCodeUtils.writeSvg(content, out, requestOptions);
+        } else {
+            QRCodeUtils.encode(content, out, requestOptions);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 内容和参数的SHA-256，取前128位
+     */
+    static String etag(String content, QRCodeOptions options, boolean svg) {
+        StringBuilder sb = new StringBuilder(content.length() + 96);
+        sb.append(ETAG_VERSION).append('|').append(svg ? "svg" : "png")
+                .append('|').append(options.getSize())
+                .append('|').append(options.getMargin())
+                .append('|').append(options.getErrorCorrection())
+                .append('|').append(options.getImageType())
+                .append('|').append(options.getLogo() == null ? "" : options.getLogo().fingerprint())
+                .append('|').append(options.isCompressLogo())
+                .append('|').append(content);
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(sb.toString().getBytes(StandardCharsets.UTF_8));
+            return "\"" + HexUtil.encodeHexStr(digest).substring(0, 32) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * If-None-Match按弱比较匹配，支持 * 和逗号分隔的多个ETag
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ListStringUtil.split(ifNoneMatch, ",", true, true, 0)) {
+            if ("*".equals(candidate)) {
+                return true;
+            }
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,67 @@
+package com.zyy.tools.util;
+
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.WriterException;
+import com.google.zxing.qrcode.encoder.ByteMatrix;
+import com.google.zxing.qrcode.encoder.Encoder;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 二维码输出为SVG，按模块坐标输出矢量路径，不生成任何图片
+ * 每行连续的黑色模块合并为一个矩形子路径
+ */
+final class QRCodeSvgWriter {
+
+    private QRCodeSvgWriter() {
+    }
+
+    /**
+     * 写出SVG
+     *
+     * @param content 内容
+     * @param output  输出流，不关闭
+     * @param options 生成参数，不支持LOGO
+     */
+    static void write(String content, OutputStream output, QRCodeOptions options) throws IOException, WriterException {
+        Map<EncodeHintType, Object> hints = new EnumMap<>(EncodeHintType.class);
+        hints.put(EncodeHintType.CHARACTER_SET, "utf-8");
+        ByteMatrix matrix = Encoder.encode(content, options.getErrorCorrection(), hints).getMatrix();
+        int margin = options.getMargin();
+        int modules = matrix.getWidth() + 2 * margin;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        writer.write("<svg xmlns=\"http://www.w3.org/2000/svg\" version=\"1.1\" width=\"" + options.getSize()
+                + "\" height=\"" + options.getSize() + "\" viewBox=\"0 0 " + modules + " " + modules
+                + "\" shape-rendering=\"crispEdges\">\n");
+        writer.write("<rect width=\"" + modules + "\" height=\"" + modules + "\" fill=\"#fff\"/>\n");
+        writer.write("<path fill=\"#000\" d=\"");
+        StringBuilder run = new StringBuilder(32);
+        for (int y = 0; y < matrix.getHeight(); y++) {
+            int x = 0;
+            while (x < matrix.getWidth()) {
+                if (matrix.get(x, y) != 1) {
+                    x++;
+                    continue;
+                }
+                int start = x;
+                while (x < matrix.getWidth() && matrix.get(x, y) == 1) {
+                    x++;
+                }
+                run.setLength(0);
+                run.append('M').append(start + margin).append(' ').append(y + margin)
+                        .append('h').append(x - start).append("v1h-").append(x - start).append('z');
+                writer.append(run);
+            }
+        }
+        writer.write("\"/>\n</svg>\n");
+        writer.flush();
+    }
+}
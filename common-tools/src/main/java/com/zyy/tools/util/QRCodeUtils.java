@@ -4,19 +4,27 @@ package com.zyy.tools.util;
 import cn.hutool.core.util.RandomUtil;
 import com.google.zxing.BarcodeFormat;
 import com.google.zxing.EncodeHintType;
-import com.google.zxing.MultiFormatWriter;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitArray;
 import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
 import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
-import org.springframework.core.io.ClassPathResource;
 
 import javax.imageio.ImageIO;
-import java.awt.*;
-import java.awt.geom.RoundRectangle2D;
+import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.OutputStream;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.Map;
+import java.util.zip.Deflater;
 
 public class QRCodeUtils {
     private static final String CHARSET = "utf-8";
@@ -28,83 +36,186 @@ public class QRCodeUtils {
     // LOGO高度
     private static final int HEIGHT = 100;
 
+    private static final int BLACK = 0xFF000000;
+
+    private static final int WHITE = 0xFFFFFFFF;
 
     /**
-     * 创建二维码
-     * @param content
-     * @param needCompress
-     * @return
-     * @throws Exception
+     * 默认编码参数，所有调用共用
+     */
+    private static final Map<EncodeHintType, Object> HINTS = hints(ErrorCorrectionLevel.H, 1);
+
+    private static final QRCodeWriter WRITER = new QRCodeWriter();
+
+    /**
+     * 每个线程复用的画布，写出到文件或流后即可重复使用
+     * 只保留不超过 MAX_CANVAS_BYTES 的画布，避免每个工作线程长期占用大块内存
+     */
+    private static final ThreadLocal<BufferedImage> CANVAS = new ThreadLocal<>();
+
+    /**
+     * 复用画布的最大像素字节数：RGB约512像素见方，覆盖默认的500像素
      */
-    private static BufferedImage createImage(String content,
-                                             boolean needCompress) throws Exception {
-        Map<EncodeHintType, Object> hints = new HashMap<>();
+    private static final int MAX_CANVAS_BYTES = 1024 * 1024;
+
+    private static Map<EncodeHintType, Object> hints(ErrorCorrectionLevel errorCorrection, int margin) {
+        Map<EncodeHintType, Object> hints = new EnumMap<>(EncodeHintType.class);
         // 使用的纠错程度
-        hints.put(EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.H);
+        hints.put(EncodeHintType.ERROR_CORRECTION, errorCorrection);
         // 设置字符编码
         hints.put(EncodeHintType.CHARACTER_SET, CHARSET);
         // 指定生成条形码时要使用的边距（以像素为单位）
-        hints.put(EncodeHintType.MARGIN, 1);
+        hints.put(EncodeHintType.MARGIN, margin);
+        return Collections.unmodifiableMap(hints);
+    }
+
+    /**
+     * 按参数编码为模块矩阵
+     */
+    static BitMatrix encodeMatrix(String content, QRCodeOptions options) throws WriterException {
+        Map<EncodeHintType, Object> hints = options.getErrorCorrection() == ErrorCorrectionLevel.H
+                && options.getMargin() == 1 ? HINTS : hints(options.getErrorCorrection(), options.getMargin());
         // 设置二维码的四个参数   需要生成的字符串，类型设置为二维码，二维码宽度，二维码高度，字符串字符集
-        BitMatrix bitMatrix = new MultiFormatWriter().encode(content,
-                BarcodeFormat.QR_CODE, QRCODE_SIZE, QRCODE_SIZE, hints);
+        return WRITER.encode(content, BarcodeFormat.QR_CODE, options.getSize(), options.getSize(), hints);
+    }
+
+    /**
+     * 创建二维码图片
+     *
+     * @param content 内容
+     * @param options 生成参数
+     * @return 新建的图片
+     * @throws Exception
+     */
+    public static BufferedImage createImage(String content, QRCodeOptions options) throws Exception {
+        return createImage(content, options, false);
+    }
+
+    /**
+     * 创建二维码
+     * @param content
+     * @param options
+     * @param reuse   是否复用当前线程的画布
+     * @return
+     * @throws Exception
+     */
+    private static BufferedImage createImage(String content, QRCodeOptions options,
+                                             boolean reuse) throws Exception {
+        if (options.getLogo() != null && options.getImageType() != BufferedImage.TYPE_INT_RGB) {
+            throw new IllegalArgumentException("A logo requires image type TYPE_INT_RGB");
+        }
+        BitMatrix bitMatrix = encodeMatrix(content, options);
         // 二维码像素，也就是上面设置的 宽度和高度
         int width = bitMatrix.getWidth();
         int height = bitMatrix.getHeight();
         // 创建二维码对象
-        BufferedImage image = new BufferedImage(width, height,
-                BufferedImage.TYPE_INT_RGB);
-        for (int x = 0; x < width; x++) {
-            for (int y = 0; y < height; y++) {
-                // 按照上面定义好的二维码颜色编码生成二维码
-                image.setRGB(x, y, bitMatrix.get(x, y) ? 0xFF000000
-                        : 0xFFFFFFFF);
+        BufferedImage image = reuse ? CANVAS.get() : null;
+        if (image == null || image.getWidth() != width || image.getHeight() != height
+                || image.getType() != options.getImageType()) {
+            image = new BufferedImage(width, height, options.getImageType());
+            if (reuse) {
+                if (canvasBytes(width, height, options.getImageType()) <= MAX_CANVAS_BYTES) {
+                    CANVAS.set(image);
+                } else {
+                    CANVAS.remove();
+                }
             }
         }
+        if (options.getImageType() == BufferedImage.TYPE_BYTE_BINARY) {
+            renderBinary(bitMatrix, image);
+        } else {
+            renderRgb(bitMatrix, image);
+        }
         // 在二维码中插入图片
-        QRCodeUtils.insertImage(image, needCompress);
+        if (options.getLogo() != null) {
+            QRCodeUtils.insertImage(image, options);
+        }
         return image;
     }
 
     /**
-     * 插入LOGO
-     *
-     * @param source       二维码图片
-     * @param needCompress 是否压缩
-     * @throws Exception
+     * 释放当前线程复用的画布
      */
-    private static void insertImage(BufferedImage source,
-                                    boolean needCompress) throws Exception {
-        Image src = ImageIO.read(new ClassPathResource("static/qrLogo.png").getInputStream());
-        int width = src.getWidth(null);
-        int height = src.getHeight(null);
-        if (needCompress) { // 压缩LOGO
-            if (width > WIDTH) {
-                width = WIDTH;
+    public static void releaseCanvas() {
+        CANVAS.remove();
+    }
+
+    private static long canvasBytes(int width, int height, int imageType) {
+        return imageType == BufferedImage.TYPE_BYTE_BINARY ? (long) ((width + 7) >> 3) * height : 4L * width * height;
+    }
+
+    /**
+     * 按行直接写入int像素数组，整段模块一次填充，与上一行相同时直接复制
+     */
+    private static void renderRgb(BitMatrix bitMatrix, BufferedImage image) {
+        int width = bitMatrix.getWidth();
+        int height = bitMatrix.getHeight();
+        int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        BitArray row = new BitArray(width);
+        BitArray previous = new BitArray(width);
+        for (int y = 0; y < height; y++) {
+            row = bitMatrix.getRow(y, row);
+            int offset = y * width;
+            if (y > 0 && row.equals(previous)) {
+                System.arraycopy(pixels, offset - width, pixels, offset, width);
+                continue;
             }
-            if (height > HEIGHT) {
-                height = HEIGHT;
+            int x = 0;
+            while (x < width) {
+                int black = row.getNextSet(x);
+                Arrays.fill(pixels, offset + x, offset + black, WHITE);
+                if (black == width) {
+                    break;
+                }
+                x = row.getNextUnset(black);
+                Arrays.fill(pixels, offset + black, offset + x, BLACK);
             }
-            Image image = src.getScaledInstance(width, height,
-                    Image.SCALE_SMOOTH);
-            BufferedImage tag = new BufferedImage(width, height,
-                    BufferedImage.TYPE_INT_RGB);
-            Graphics g = tag.getGraphics();
-            g.drawImage(image, 0, 0, null); // 绘制缩小后的图
-            g.dispose();
-            src = image;
+            BitArray swap = previous;
+            previous = row;
+            row = swap;
         }
-        // 插入LOGO
-        Graphics2D graph = source.createGraphics();
+    }
 
-        int x = (QRCODE_SIZE - width) / 2;
-        int y = (QRCODE_SIZE - height) / 2;
-        graph.fillOval(x, y, width, height);
-        graph.drawImage(src, x, y, width, height, null);
-        Shape shape = new RoundRectangle2D.Float(x, y, width, height, 6, 6);
-        graph.setStroke(new BasicStroke(1f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
-        graph.setComposite(AlphaComposite.getInstance(AlphaComposite.DST_OVER));
-        graph.draw(shape);
+    /**
+     * 每像素1位（0黑1白），按行写入字节数组，整段模块按字节填充
+     */
+    private static void renderBinary(BitMatrix bitMatrix, BufferedImage image) {
+        int width = bitMatrix.getWidth();
+        int height = bitMatrix.getHeight();
+        byte[] bytes = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+        int stride = (width + 7) >> 3;
+        BitArray row = new BitArray(width);
+        BitArray previous = new BitArray(width);
+        for (int y = 0; y < height; y++) {
+            row = bitMatrix.getRow(y, row);
+            int offset = y * stride;
+            if (y > 0 && row.equals(previous)) {
+                System.arraycopy(bytes, offset - stride, bytes, offset, stride);
+                continue;
+            }
+            QRCodePngEncoder.packRow(row, width, bytes, offset);
+            BitArray swap = previous;
+            previous = row;
+            row = swap;
+        }
+    }
+
+    /**
+     * 插入LOGO，贴图已缓存，只需一次drawImage
+     *
+     * @param source  二维码图片
+     * @param options 生成参数
+     * @throws Exception
+     */
+    private static void insertImage(BufferedImage source, QRCodeOptions options) throws Exception {
+        // LOGO最大宽高按二维码尺寸等比例，默认尺寸下为100
+        int maxWidth = Math.max(1, options.getSize() * WIDTH / QRCODE_SIZE);
+        int maxHeight = Math.max(1, options.getSize() * HEIGHT / QRCODE_SIZE);
+        BufferedImage patch = options.getLogo().patch(maxWidth, maxHeight, options.isCompressLogo());
+        Graphics2D graph = source.createGraphics();
+        int x = (source.getWidth() - patch.getWidth()) / 2;
+        int y = (source.getHeight() - patch.getHeight()) / 2;
+        graph.drawImage(patch, x, y, null);
         graph.dispose();
     }
 
@@ -118,11 +229,38 @@ public class QRCodeUtils {
      */
     public static String encode(String content, String destPath,
                                 boolean needCompress) throws Exception {
-        BufferedImage image = QRCodeUtils.createImage(content,
-                needCompress);
+        return encode(content, destPath, QRCodeLogo.DEFAULT, needCompress);
+    }
+
+    /**
+     * 生成二维码(内嵌指定LOGO)
+     *
+     * @param content      内容
+     * @param destPath     存放目录
+     * @param logo         LOGO，为null时不插入
+     * @param needCompress 是否压缩LOGO
+     * @throws Exception
+     */
+    public static String encode(String content, String destPath, QRCodeLogo logo,
+                                boolean needCompress) throws Exception {
+        return encode(content, destPath, QRCodeOptions.defaults().withLogo(logo, needCompress));
+    }
+
+    /**
+     * 按参数生成二维码到目录
+     *
+     * @param content  内容
+     * @param destPath 存放目录
+     * @param options  生成参数
+     * @return 文件名
+     * @throws Exception
+     */
+    public static String encode(String content, String destPath, QRCodeOptions options) throws Exception {
         mkdirs(destPath);
-        String file = RandomUtil.randomInt(99999999) + ".jpg";
-        ImageIO.write(image, FORMAT_NAME, new File(destPath + "/" + file));
+        String file = RandomUtil.randomInt(99999999) + ".png";
+        try (OutputStream output = new BufferedOutputStream(new FileOutputStream(new File(destPath, file)))) {
+            encode(content, output, options);
+        }
         return file;
     }
 
@@ -149,9 +287,93 @@ public class QRCodeUtils {
      */
     public static void encode(String content,
                               OutputStream output) throws Exception {
-        BufferedImage image = QRCodeUtils.createImage(content,
-                true);
-        ImageIO.write(image, FORMAT_NAME, output);
+        encode(content, output, QRCodeLogo.DEFAULT, true);
+    }
+
+    /**
+     * 生成二维码(内嵌指定LOGO)
+     *
+     * @param content      内容
+     * @param output       输出流
+     * @param logo         LOGO，为null时不插入
+     * @param needCompress 是否压缩LOGO
+     * @throws Exception
+     */
+    public static void encode(String content, OutputStream output, QRCodeLogo logo,
+                              boolean needCompress) throws Exception {
+        encode(content, output, QRCodeOptions.defaults().withLogo(logo, needCompress));
+    }
+
+    /**
+     * 按参数生成二维码到输出流
+     *
+     * @param content 内容
+     * @param output  输出流
+     * @param options 生成参数
+     * @throws Exception
+     */
+    public static void encode(String content, OutputStream output, QRCodeOptions options) throws Exception {
+        if (options.getLogo() == null && options.getImageType() == BufferedImage.TYPE_BYTE_BINARY) {
+            writePng(content, output, options, Deflater.DEFAULT_COMPRESSION);
+            return;
+        }
+        BufferedImage image = QRCodeUtils.createImage(content, options, true);
+        if (!ImageIO.write(image, FORMAT_NAME, output)) {
+            throw new IOException("No PNG writer for image type " + image.getType());
+        }
+    }
+
+    /**
+     * 直接编码为1位PNG，不生成BufferedImage，不经过ImageIO
+     *
+     * @param content          内容
+     * @param output           输出流
+     * @param options          生成参数，不支持LOGO，忽略图片类型
+     * @param compressionLevel 压缩级别 0-9，-1为默认
+     * @throws Exception
+     */
+    public static void writePng(String content, OutputStream output, QRCodeOptions options,
+                                int compressionLevel) throws Exception {
+        if (options.getLogo() != null) {
+            throw new IllegalArgumentException("A 1-bit PNG cannot contain a logo");
+        }
+        if (compressionLevel < Deflater.DEFAULT_COMPRESSION || compressionLevel > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Invalid compression level: " + compressionLevel);
+        }
+        QRCodePngEncoder.write(encodeMatrix(content, options), output, compressionLevel);
+    }
+
+    /**
+     * 输出为SVG矢量图，宽高为options的尺寸，不生成任何图片
+     *
+     * @param content 内容
+     * @param output  输出流
+     * @param options 生成参数，不支持LOGO，忽略图片类型
+     * @throws Exception
+     */
+    public static void writeSvg(String content, OutputStream output, QRCodeOptions options) throws Exception {
+        if (options.getLogo() != null) {
+            throw new IllegalArgumentException("SVG output does not support a logo");
+        }
+        QRCodeSvgWriter.write(content, output, options);
+    }
+
+    /**
+     * 按参数生成二维码到输出流，经过PNG缓存
+     *
+     * @param content 内容
+     * @param output  输出流
+     * @param options 生成参数
+     * @param cache   PNG缓存，为null时不缓存
+     * @throws Exception
+     */
+    public static void encode(String content, OutputStream output, QRCodeOptions options,
+                              QRCodeCache cache) throws Exception {
+        if (cache == null) {
+            encode(content, output, options);
+        } else {
+            cache.encode(content, options, output);
+        }
     }
 
 
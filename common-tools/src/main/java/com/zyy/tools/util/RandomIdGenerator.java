@@ -0,0 +1,175 @@
+package com.zyy.tools.util;
+
+/**
+ * 随机ID生成引擎
+ * 直接把随机数编码为小写十六进制字符，格式与 UUID.randomUUID() 去掉 "-" 后一致（版本位为4）
+ * 不经过 UUID.toString()、正则替换和 substring
+ */
+public final class RandomIdGenerator {
+
+    /**
+     * 最大ID长度
+     */
+    public static final int MAX_LENGTH = 32;
+
+    /**
+     * 批量生成时每次取随机数的ID个数
+     */
+    private static final int BULK_SIZE = 256;
+
+    static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private static final RandomIdGenerator SECURE = new RandomIdGenerator(IdEntropySource.securePool());
+
+    private static final RandomIdGenerator FAST = new RandomIdGenerator(IdEntropySource.threadLocalRandom());
+
+    /**
+     * 线程内复用的字符缓冲，生成String时只分配String本身
+     */
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[MAX_LENGTH]);
+
+    private final IdEntropySource source;
+
+    public RandomIdGenerator(IdEntropySource source) {
+        if (source == null) {
+            throw new IllegalArgumentException("The source must not be null");
+        }
+        this.source = source;
+    }
+
+    /**
+     * 基于SecureRandom的生成器，UuidUtil默认使用
+     */
+    public static RandomIdGenerator secure() {
+        return SECURE;
+    }
+
+    /**
+     * 基于ThreadLocalRandom的生成器，仅用于非安全场景
+     */
+    public static RandomIdGenerator fast() {
+        return FAST;
+    }
+
+    /**
+     * 生成指定长度的ID，取32位UUID十六进制串的前length位
+     *
+     * @param length 长度 1~32
+     * @return ID
+     */
+    public String uuid(int length) {
+        checkLength(length);
+        char[] buffer = BUFFER.get();
+        uuid(buffer, 0, length);
+        return new String(buffer, 0, length);
+    }
+
+    /**
+     * 把ID的前length位十六进制字符写入指定数组
+     *
+     * @param dest   目标数组
+     * @param offset 起始下标
+     * @param length 长度 1~32
+     */
+    public void uuid(char[] dest, int offset, int length) {
+        checkLength(length);
+        long msb = versionedMsb(source.nextLong());
+        if (length <= 16) {
+            writeHex(msb, dest, offset, length);
+            return;
+        }
+        long lsb = variantLsb(source.nextLong());
+        writeHex(msb, dest, offset, 16);
+        writeHex(lsb, dest, offset + 16, length - 16);
+    }
+
+    /**
+     * 批量生成ID填满指定数组，随机数按块一次取出
+     *
+     * @param dest   目标数组
+     * @param length 每个ID的长度 1~32
+     */
+    public void fill(String[] dest, int length) {
+        checkLength(length);
+        char[] buffer = BUFFER.get();
+        long[] random = new long[BULK_SIZE * 2];
+        for (int from = 0; from < dest.length; from += BULK_SIZE) {
+            int n = Math.min(BULK_SIZE, dest.length - from);
+            source.nextLongs(random, 0, n * 2);
+            for (int i = 0; i < n; i++) {
+                writeHex(versionedMsb(random[i * 2]), buffer, 0, Math.min(length, 16));
+                if (length > 16) {
+                    writeHex(variantLsb(random[i * 2 + 1]), buffer, 16, length - 16);
+                }
+                dest[from + i] = new String(buffer, 0, length);
+            }
+        }
+    }
+
+    /**
+     * 批量生成128位ID，按 [高64位, 低64位] 成对写入，数组长度需为偶数
+     *
+     * @param pairs 目标数组
+     */
+    public void fill(long[] pairs) {
+        if ((pairs.length & 1) != 0) {
+            throw new IllegalArgumentException("The pairs length must be even");
+        }
+        source.nextLongs(pairs, 0, pairs.length);
+        for (int i = 0; i < pairs.length; i += 2) {
+            pairs[i] = versionedMsb(pairs[i]);
+            pairs[i + 1] = variantLsb(pairs[i + 1]);
+        }
+    }
+
+    /**
+     * 批量生成count个32位ID，依次写入字符数组
+     *
+     * @param block 目标数组，长度不小于 count * 32
+     * @param count ID个数
+     */
+    public void fill(char[] block, int count) {
+        if (count < 0 || (long) count * MAX_LENGTH > block.length) {
+            throw new IllegalArgumentException("The block is too small for " + count + " ids");
+        }
+        long[] random = new long[BULK_SIZE * 2];
+        for (int from = 0; from < count; from += BULK_SIZE) {
+            int n = Math.min(BULK_SIZE, count - from);
+            source.nextLongs(random, 0, n * 2);
+            for (int i = 0; i < n; i++) {
+                int offset = (from + i) * MAX_LENGTH;
+                writeHex(versionedMsb(random[i * 2]), block, offset, 16);
+                writeHex(variantLsb(random[i * 2 + 1]), block, offset + 16, 16);
+            }
+        }
+    }
+
+    /**
+     * 设置版本位为4
+     */
+    static long versionedMsb(long msb) {
+        return (msb & 0xFFFFFFFFFFFF0FFFL) | 0x0000000000004000L;
+    }
+
+    /**
+     * 设置IETF变体位
+     */
+    static long variantLsb(long lsb) {
+        return (lsb & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+    }
+
+    /**
+     * 把value的高位开始的count个半字节写为十六进制字符
+     */
+    static void writeHex(long value, char[] dest, int offset, int count) {
+        for (int i = 0, shift = 60; i < count; i++, shift -= 4) {
+            dest[offset + i] = HEX_DIGITS[(int) (value >>> shift) & 0xF];
+        }
+    }
+
+    private static void checkLength(int length) {
+        if (length < 1 || length > MAX_LENGTH) {
+            throw new IllegalArgumentException("The length must be between 1 and " + MAX_LENGTH);
+        }
+    }
+}
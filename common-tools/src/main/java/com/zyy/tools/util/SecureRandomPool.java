@@ -0,0 +1,68 @@
+package com.zyy.tools.util;
+
+import java.security.SecureRandom;
+
+/**
+ * 带线程缓冲的SecureRandom随机源
+ * 每个线程一次从共享的SecureRandom取一整块随机字节，减少对SecureRandom的竞争和调用次数
+ */
+final class SecureRandomPool implements IdEntropySource {
+
+    static final SecureRandomPool INSTANCE = new SecureRandomPool();
+
+    /**
+     * 每个线程每次缓冲的long个数
+     */
+    private static final int POOL_SIZE = 64;
+
+    private final SecureRandom random = new SecureRandom();
+
+    private final ThreadLocal<Pool> pools = ThreadLocal.withInitial(Pool::new);
+
+    private SecureRandomPool() {
+    }
+
+    @Override
+    public long nextLong() {
+        Pool pool = pools.get();
+        if (pool.position == POOL_SIZE) {
+            refill(pool);
+        }
+        return pool.values[pool.position++];
+    }
+
+    @Override
+    public void nextLongs(long[] dest, int offset, int length) {
+        Pool pool = pools.get();
+        while (length > 0) {
+            if (pool.position == POOL_SIZE) {
+                refill(pool);
+            }
+            int n = Math.min(length, POOL_SIZE - pool.position);
+            System.arraycopy(pool.values, pool.position, dest, offset, n);
+            pool.position += n;
+            offset += n;
+            length -= n;
+        }
+    }
+
+    private void refill(Pool pool) {
+        byte[] bytes = pool.bytes;
+        random.nextBytes(bytes);
+        long[] values = pool.values;
+        for (int i = 0, b = 0; i < POOL_SIZE; i++) {
+            long v = 0;
+            for (int end = b + 8; b < end; b++) {
+                v = (v << 8) | (bytes[b] & 0xFF);
+            }
+            values[i] = v;
+        }
+        pool.position = 0;
+    }
+
+    private static final class Pool {
+        private final byte[] bytes = new byte[POOL_SIZE * 8];
+        private final long[] values = new long[POOL_SIZE];
+        private int position = POOL_SIZE;
+    }
+}
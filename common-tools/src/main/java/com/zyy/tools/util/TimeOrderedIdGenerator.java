@@ -0,0 +1,152 @@
+package com.zyy.tools.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 时间有序ID生成器
+ * 1. 雪花ID：1位符号 + 41位毫秒时间戳(相对epoch) + 10位节点号 + 12位序列号
+ * 2. UUIDv7：48位毫秒时间戳 + 4位版本 + 12位序列号 + 2位变体 + 62位随机数，输出32位十六进制
+ * <p>
+ * 时间戳与序列号打包在一个AtomicLong里通过CAS推进，无锁且跨线程单调递增。
+ * 同一毫秒序列号用完时借用下一毫秒；时钟回拨不超过 maxBackwardMillis 时沿用上次的时间戳继续递增，
+ * 超过则抛出 IllegalStateException；借用的时间超出 maxBackwardMillis 时让出CPU等待时钟追上。
+ */
+public final class TimeOrderedIdGenerator {
+
+    /**
+     * 默认起始时间 2020-01-01 00:00:00 UTC
+     */
+    public static final long DEFAULT_EPOCH = 1577836800000L;
+
+    /**
+     * 默认允许的时钟回拨/时间借用毫秒数
+     */
+    public static final long DEFAULT_MAX_BACKWARD_MILLIS = 1000L;
+
+    private static final int SEQUENCE_BITS = 12;
+
+    private static final int WORKER_BITS = 10;
+
+    /**
+     * 最大节点号
+     */
+    public static final int MAX_WORKER_ID = (1 << WORKER_BITS) - 1;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final TimeOrderedIdGenerator DEFAULT = new TimeOrderedIdGenerator(0);
+
+    private final long workerId;
+
+    private final long epoch;
+
+    private final long maxBackwardMillis;
+
+    private final LongSupplier clock;
+
+    private final IdEntropySource source = IdEntropySource.securePool();
+
+    /**
+     * 雪花ID的时间戳+序列号
+     */
+    private final AtomicLong snowflakeState = new AtomicLong();
+
+    /**
+     * UUIDv7的时间戳+序列号
+     */
+    private final AtomicLong uuidState = new AtomicLong();
+
+    public TimeOrderedIdGenerator(int workerId) {
+        this(workerId, DEFAULT_EPOCH, DEFAULT_MAX_BACKWARD_MILLIS, System::currentTimeMillis);
+    }
+
+    /**
+     * @param workerId          节点号 0~1023
+     * @param epoch             雪花ID的起始时间
+     * @param maxBackwardMillis 允许的时钟回拨/时间借用毫秒数
+     * @param clock             毫秒时钟
+     */
+    public TimeOrderedIdGenerator(int workerId, long epoch, long maxBackwardMillis, LongSupplier clock) {
+        if (workerId < 0 || workerId > MAX_WORKER_ID) {
+            throw new IllegalArgumentException("The workerId must be between 0 and " + MAX_WORKER_ID);
+        }
+        if (maxBackwardMillis < 0) {
+            throw new IllegalArgumentException("The maxBackwardMillis must be a positive integer or zero");
+        }
+        this.workerId = workerId;
+        this.epoch = epoch;
+        this.maxBackwardMillis = maxBackwardMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * 节点号为0的默认生成器，多节点部署生成雪花ID时需各自创建不同节点号的实例
+     */
+    public static TimeOrderedIdGenerator getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * 生成雪花ID
+     */
+    public long nextId() {
+        long tick = nextTick(snowflakeState);
+        long timestamp = (tick >>> SEQUENCE_BITS) - epoch;
+        if (timestamp < 0) {
+            throw new IllegalStateException("The clock is before epoch " + epoch);
+        }
+        return (timestamp << (WORKER_BITS + SEQUENCE_BITS)) | (workerId << SEQUENCE_BITS) | (tick & SEQUENCE_MASK);
+    }
+
+    /**
+     * 生成UUIDv7的32位十六进制字符串，字典序与生成顺序一致
+     */
+    public String nextUuid() {
+        char[] chars = new char[32];
+        nextUuid(chars, 0);
+        return new String(chars);
+    }
+
+    /**
+     * 生成UUIDv7的32位十六进制字符写入指定数组
+     *
+     * @param dest   目标数组
+     * @param offset 起始下标
+     */
+    public void nextUuid(char[] dest, int offset) {
+        long tick = nextTick(uuidState);
+        long msb = ((tick >>> SEQUENCE_BITS) << 16) | 0x7000L | (tick & SEQUENCE_MASK);
+        long lsb = RandomIdGenerator.variantLsb(source.nextLong());
+        RandomIdGenerator.writeHex(msb, dest, offset, 16);
+        RandomIdGenerator.writeHex(lsb, dest, offset + 16, 16);
+    }
+
+    /**
+     * 推进时间戳与序列号，返回 (毫秒时间戳 << 12) | 序列号
+     */
+    private long nextTick(AtomicLong state) {
+        for (; ; ) {
+            long now = clock.getAsLong();
+            long prev = state.get();
+            long prevTimestamp = prev >>> SEQUENCE_BITS;
+            long next;
+            if (now > prevTimestamp) {
+                next = now << SEQUENCE_BITS;
+            } else {
+                if (prevTimestamp - now > maxBackwardMillis) {
+                    throw new IllegalStateException("Clock moved backwards by " + (prevTimestamp - now) + "ms");
+                }
+                // 序列号溢出时进位到下一毫秒
+                next = prev + 1;
+                if ((next >>> SEQUENCE_BITS) - now > maxBackwardMillis) {
+                    Thread.yield();
+                    continue;
+                }
+            }
+            if (state.compareAndSet(prev, next)) {
+                return next;
+            }
+        }
+    }
+}
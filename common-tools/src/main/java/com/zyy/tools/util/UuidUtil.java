@@ -1,17 +1,42 @@
 package com.zyy.tools.util;
 
-import java.util.UUID;
-
+/**
+ * UUID工具类
+ * 输出格式与 UUID.randomUUID() 去掉 "-" 后截取一致，由 {@link RandomIdGenerator} 生成
+ */
 public class UuidUtil {
     public static String uuid32() {
-        return UUID.randomUUID().toString().replaceAll("-", "");
+        return RandomIdGenerator.secure().uuid(32);
     }
 
     public static String uuid16() {
-        return UUID.randomUUID().toString().replaceAll("-", "").substring(0, 16);
+        return RandomIdGenerator.secure().uuid(16);
     }
 
     public static String uuid8() {
-        return UUID.randomUUID().toString().replaceAll("-", "").substring(0, 8);
+        return RandomIdGenerator.secure().uuid(8);
+    }
+
+    /**
+     * 批量生成32位UUID填满指定数组
+     */
+    public static String[] uuid32(String[] dest) {
+        RandomIdGenerator.secure().fill(dest, 32);
+        return dest;
+    }
+
+    /**
+     * 时间有序的32位UUID(v7)，适合做数据库主键
+     */
+    public static String uuid7() {
+        return TimeOrderedIdGenerator.getDefault().nextUuid();
+    }
+
+    /**
+     * 雪花ID，使用节点号为0的默认生成器
+     * 多节点部署时需使用各自节点号的 {@link TimeOrderedIdGenerator}
+     */
+    public static long snowflakeId() {
+        return TimeOrderedIdGenerator.getDefault().nextId();
     }
 }
@@ -0,0 +1,109 @@
+package com.zyy.tools;
+
+import com.zyy.tools.util.BatchLoader;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+
+public class BatchLoaderTest extends TestCase {
+
+    public void testCoalescesConcurrentLoads() throws Exception {
+        List<List<Integer>> calls = new CopyOnWriteArrayList<>();
+        BatchLoader<Integer, String> loader = new BatchLoader<>(keys -> {
+            calls.add(new ArrayList<>(keys));
+            // 奇数查不到
+            return keys.stream().filter(k -> k % 2 == 0).map(k -> "v" + k).collect(Collectors.toList());
+        }, value -> Integer.valueOf(value.substring(1)), 1000, 60000);
+
+        List<CompletableFuture<String>> futures = new CopyOnWriteArrayList<>();
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int k = 0; k < 20; k++) {
+                    futures.add(loader.load(k));
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        // 窗口足够长，所有线程的请求都在同一批里
+        loader.flush();
+        for (int i = 0; i < futures.size(); i++) {
+            futures.get(i).get();
+        }
+        int total = calls.stream().mapToInt(List::size).sum();
+        assertEquals(20, total);
+        assertEquals(1, calls.size());
+        CompletableFuture<String> v4 = loader.load(4);
+        CompletableFuture<String> v5 = loader.load(5);
+        loader.flush();
+        assertEquals("v4", v4.get());
+        assertNull(v5.get());
+    }
+
+    public void testJoinsInFlightLoad() throws Exception {
+        List<List<Integer>> calls = new CopyOnWriteArrayList<>();
+        CountDownLatch release = new CountDownLatch(1);
+        BatchLoader<Integer, String> loader = new BatchLoader<>(keys -> {
+            calls.add(new ArrayList<>(keys));
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return keys.stream().map(k -> "v" + k).collect(Collectors.toList());
+        }, value -> Integer.valueOf(value.substring(1)), 1000, 60000);
+
+        CompletableFuture<String> first = loader.load(1);
+        loader.flush();
+        // 查询已发出但未返回，同一个key不再进入下一批
+        CompletableFuture<String> second = loader.load(1);
+        assertSame(first, second);
+        CompletableFuture<String> other = loader.load(2);
+        loader.flush();
+        release.countDown();
+        assertEquals("v1", second.get());
+        assertEquals("v2", other.get());
+        // 两批在不同线程执行，顺序不定
+        assertEquals(2, calls.size());
+        assertTrue(calls.contains(Collections.singletonList(1)));
+        assertTrue(calls.contains(Collections.singletonList(2)));
+
+        // 返回后再加载重新查询
+        CompletableFuture<String> again = loader.load(1);
+        assertNotSame(first, again);
+        loader.flush();
+        assertEquals("v1", again.get());
+        assertEquals(3, calls.size());
+    }
+
+    public void testMaxBatchAndCache() throws Exception {
+        List<List<Integer>> calls = new CopyOnWriteArrayList<>();
+        BatchLoader.ResultCache<Integer, String> cache = new BatchLoader.ResultCache<>(100, 60000);
+        BatchLoader<Integer, String> loader = new BatchLoader<>(keys -> {
+            calls.add(new ArrayList<>(keys));
+            return keys.stream().map(k -> "v" + k).collect(Collectors.toList());
+        }, value -> Integer.valueOf(value.substring(1)), 2, 3, 60000, null, cache);
+
+        CompletableFuture<String> a = loader.load(1);
+        CompletableFuture<String> b = loader.load(1);
+        assertSame(a, b);
+        loader.load(2);
+        // 第3个key达到最大批量，立即查询，按每片2个分片
+        assertEquals("v3", loader.load(3).get());
+        assertEquals("v1", a.get());
+        assertEquals(2, calls.size());
+        assertEquals(3, cache.size());
+
+        assertEquals("v2", loader.load(2).get());
+        assertEquals(2, calls.size());
+    }
+}
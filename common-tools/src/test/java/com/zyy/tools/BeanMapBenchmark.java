@@ -0,0 +1,234 @@
+package com.zyy.tools;
+
+import cn.hutool.core.bean.BeanUtil;
+import cn.hutool.core.bean.copier.CopyOptions;
+import com.zyy.tools.util.BeanMapUtils;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * BeanMapUtils 与 hutool BeanUtil 的耗时对比，Bean复制与Map往返转换的对比，
+ * 以及批量转换与逐条转换的耗时、内存分配对比
+ */
+public class BeanMapBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    private static final int COUNT = 200_000;
+
+    public static class Row {
+        private Long id;
+        private String name;
+        private Integer status;
+        private Date createTime;
+        private String remark;
+        private Long createBy;
+        private Boolean deleted;
+        private Double amount;
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Integer getStatus() {
+            return status;
+        }
+
+        public void setStatus(Integer status) {
+            this.status = status;
+        }
+
+        public Date getCreateTime() {
+            return createTime;
+        }
+
+        public void setCreateTime(Date createTime) {
+            this.createTime = createTime;
+        }
+
+        public String getRemark() {
+            return remark;
+        }
+
+        public void setRemark(String remark) {
+            this.remark = remark;
+        }
+
+        public Long getCreateBy() {
+            return createBy;
+        }
+
+        public void setCreateBy(Long createBy) {
+            this.createBy = createBy;
+        }
+
+        public Boolean getDeleted() {
+            return deleted;
+        }
+
+        public void setDeleted(Boolean deleted) {
+            this.deleted = deleted;
+        }
+
+        public Double getAmount() {
+            return amount;
+        }
+
+        public void setAmount(Double amount) {
+            this.amount = amount;
+        }
+    }
+
+    public static class RowVo {
+        private Long id;
+        private String name;
+        private Integer status;
+        private Date createTime;
+        private String remark;
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Integer getStatus() {
+            return status;
+        }
+
+        public void setStatus(Integer status) {
+            this.status = status;
+        }
+
+        public Date getCreateTime() {
+            return createTime;
+        }
+
+        public void setCreateTime(Date createTime) {
+            this.createTime = createTime;
+        }
+
+        public String getRemark() {
+            return remark;
+        }
+
+        public void setRemark(String remark) {
+            this.remark = remark;
+        }
+    }
+
+    public static void main(String[] args) {
+        Row row = new Row();
+        row.setId(1L);
+        row.setName("name");
+        row.setStatus(1);
+        row.setCreateTime(new Date());
+        row.setCreateBy(2L);
+        row.setDeleted(false);
+        row.setAmount(3.5);
+        Map<String, Object> map = BeanMapUtils.beanToMap(row, true, false);
+        CopyOptions copyOptions = CopyOptions.create();
+        copyOptions.setIgnoreNullValue(true);
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            System.out.println("round " + round);
+            time("hutool beanToMap", () -> BeanUtil.beanToMap(row, new HashMap<>(), true, true));
+            time("BeanMapUtils beanToMap", () -> BeanMapUtils.beanToMap(row, true, true));
+            time("hutool mapToBean", () -> BeanUtil.mapToBean(map, Row.class, true, copyOptions));
+            time("BeanMapUtils mapToBean", () -> BeanMapUtils.mapToBean(map, Row.class, true));
+            time("map round trip copy", () -> BeanMapUtils.mapToBean(BeanMapUtils.beanToMap(row, true),
+                    RowVo.class, true));
+            time("copyProperties", () -> BeanMapUtils.copyProperties(row, RowVo.class, false, true));
+        }
+
+        List<Row> rows = new ArrayList<>();
+        for (int i = 0; i < LIST_SIZE; i++) {
+            rows.add(row);
+        }
+        for (int round = 1; round <= ROUNDS; round++) {
+            System.out.println("list round " + round);
+            timeList("loop beanToMap", () -> {
+                List<Map<String, Object>> maps = new ArrayList<>(rows.size());
+                for (Row r : rows) {
+                    maps.add(BeanMapUtils.beanToMap(r, true, false));
+                }
+                return maps;
+            });
+            timeList("beansToMaps", () -> BeanMapUtils.beansToMaps(rows, true, false));
+            timeList("beansToMaps parallel", () -> BeanMapUtils.beansToMaps(rows, true, false, true));
+            timeList("beansToColumns", () -> BeanMapUtils.beansToColumns(rows, Row.class, true));
+        }
+    }
+
+    private static final int LIST_SIZE = 100_000;
+
+    private static final int LIST_REPEAT = 10;
+
+    /**
+     * 每项执行多次取最快一次，减少GC的干扰
+     */
+    private static void timeList(String name, Supplier<Object> task) {
+        long best = Long.MAX_VALUE;
+        long allocated = 0;
+        for (int i = 0; i < LIST_REPEAT; i++) {
+            sink = null;
+            long before = allocatedBytes();
+            long start = System.nanoTime();
+            sink = task.get();
+            best = Math.min(best, System.nanoTime() - start);
+            allocated = allocatedBytes() - before;
+        }
+        System.out.printf("  %-24s %8.1f ns/row %8.1f bytes/row%n", name, (double) best / LIST_SIZE,
+                allocated < 0 ? Double.NaN : (double) allocated / LIST_SIZE);
+    }
+
+    /**
+     * 当前线程已分配的字节数（HotSpot），不支持时返回 -1
+     */
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    private static Object sink;
+
+    private static void time(String name, Supplier<Object> task) {
+        long start = System.nanoTime();
+        for (int i = 0; i < COUNT; i++) {
+            sink = task.get();
+        }
+        long nanos = System.nanoTime() - start;
+        System.out.printf("  %-24s %8.1f ns/op%n", name, (double) nanos / COUNT);
+    }
+}
@@ -0,0 +1,478 @@
+package com.zyy.tools;
+
+import cn.hutool.core.bean.BeanDescCache;
+import cn.hutool.core.bean.BeanUtil;
+import cn.hutool.core.bean.copier.CopyOptions;
+import cn.hutool.core.io.IoUtil;
+import cn.hutool.core.util.ReflectUtil;
+import com.zyy.tools.util.BeanColumns;
+import com.zyy.tools.util.BeanMapUtils;
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class BeanMapUtilsTest extends TestCase {
+
+    public static class BaseBean {
+        private String baseName;
+
+        public String getBaseName() {
+            return baseName;
+        }
+
+        public void setBaseName(String baseName) {
+            this.baseName = baseName;
+        }
+    }
+
+    public static class UserBean extends BaseBean {
+        public String publicField;
+        private Long userId;
+        private int age;
+        private boolean active;
+        private Boolean boxedFlag;
+        private Date birthDay;
+        private List<Long> roleIds;
+        private transient String secret;
+        private String noAccessor;
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public void setUserId(Long userId) {
+            this.userId = userId;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public void setAge(int age) {
+            this.age = age;
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+
+        public void setActive(boolean active) {
+            this.active = active;
+        }
+
+        public Boolean getBoxedFlag() {
+            return boxedFlag;
+        }
+
+        public void setBoxedFlag(Boolean boxedFlag) {
+            this.boxedFlag = boxedFlag;
+        }
+
+        public Date getBirthDay() {
+            return birthDay;
+        }
+
+        public void setBirthDay(Date birthDay) {
+            this.birthDay = birthDay;
+        }
+
+        public List<Long> getRoleIds() {
+            return roleIds;
+        }
+
+        public void setRoleIds(List<Long> roleIds) {
+            this.roleIds = roleIds;
+        }
+
+        public String getSecret() {
+            return secret;
+        }
+
+        public void setSecret(String secret) {
+            this.secret = secret;
+        }
+
+        public String getComputed() {
+            return "computed";
+        }
+    }
+
+    public static class UserVo {
+        private String userId;
+        private Integer age;
+        private String active;
+        private Date birthDay;
+        private String baseName;
+        private String extra;
+
+        public String getUserId() {
+            return userId;
+        }
+
+        public void setUserId(String userId) {
+            this.userId = userId;
+        }
+
+        public Integer getAge() {
+            return age;
+        }
+
+        public void setAge(Integer age) {
+            this.age = age;
+        }
+
+        public String getActive() {
+            return active;
+        }
+
+        public void setActive(String active) {
+            this.active = active;
+        }
+
+        public Date getBirthDay() {
+            return birthDay;
+        }
+
+        public void setBirthDay(Date birthDay) {
+            this.birthDay = birthDay;
+        }
+
+        public String getBaseName() {
+            return baseName;
+        }
+
+        public void setBaseName(String baseName) {
+            this.baseName = baseName;
+        }
+
+        public String getExtra() {
+            return extra;
+        }
+
+        public void setExtra(String extra) {
+            this.extra = extra;
+        }
+    }
+
+    /**
+     * 有属性返回自身
+     */
+    public static class SelfBean {
+        private String name = "self";
+        private Object parent;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Object getParent() {
+            return parent;
+        }
+
+        public void setParent(Object parent) {
+            this.parent = parent;
+        }
+    }
+
+    /**
+     * 只自己加载 PluginBean，其余类交给父加载器，模拟webapp、插件的加载器
+     */
+    static class ChildLoader extends ClassLoader {
+        ChildLoader() {
+            super(BeanMapUtilsTest.class.getClassLoader());
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!PluginBean.class.getName().equals(name)) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> loaded = findLoadedClass(name);
+                if (loaded != null) {
+                    return loaded;
+                }
+                try (InputStream in = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+                    byte[] bytes = IoUtil.readBytes(in);
+                    return defineClass(name, bytes, 0, bytes.length);
+                } catch (IOException e) {
+                    throw new ClassNotFoundException(name, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * 非public类，走MethodHandle访问
+     */
+    static class HiddenBean {
+        private String name;
+        private int count;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+    }
+
+    private static UserBean newUser() {
+        UserBean bean = new UserBean();
+        bean.setBaseName("base");
+        bean.publicField = "public";
+        bean.setUserId(5L);
+        bean.setAge(18);
+        bean.setActive(true);
+        bean.setBirthDay(new Date(0));
+        bean.setRoleIds(Arrays.asList(1L, 2L));
+        bean.setSecret("secret");
+        return bean;
+    }
+
+    private static Map<String, Object> hutoolToMap(Object bean, boolean underline, boolean ignoreNull) {
+        return BeanUtil.beanToMap(bean, new HashMap<>(), underline, ignoreNull);
+    }
+
+    private static <T> T hutoolToBean(Map<String, Object> map, Class<T> clazz, boolean ignoreNull) {
+        CopyOptions copyOptions = CopyOptions.create();
+        copyOptions.setIgnoreNullValue(ignoreNull);
+        return BeanUtil.mapToBean(map, clazz, true, copyOptions);
+    }
+
+    public void testBeanToMapSameAsHutool() {
+        UserBean bean = newUser();
+        for (boolean underline : new boolean[]{false, true}) {
+            for (boolean ignoreNull : new boolean[]{false, true}) {
+                assertEquals(hutoolToMap(bean, underline, ignoreNull), BeanMapUtils.beanToMap(bean, underline, ignoreNull));
+            }
+        }
+        assertEquals(hutoolToMap(bean, false, true), BeanMapUtils.beanToMap(bean, true));
+
+        HiddenBean hidden = new HiddenBean();
+        hidden.setName("n");
+        assertEquals(hutoolToMap(hidden, true, false), BeanMapUtils.beanToMap(hidden, true, false));
+    }
+
+    public void testMapToBeanSameAsHutool() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("user_id", "12");
+        map.put("age", "7");
+        map.put("isActive", "true");
+        map.put("boxed_flag", 1);
+        map.put("birth_day", "2020-01-02 03:04:05");
+        map.put("role_ids", Arrays.asList("3", "4"));
+        map.put("baseName", null);
+        map.put("publicField", 99);
+        map.put("secret", "s");
+        map.put("unknown", "x");
+        for (boolean ignoreNull : new boolean[]{false, true}) {
+            assertEquals(hutoolToMap(hutoolToBean(map, UserBean.class, ignoreNull), false, false),
+                    hutoolToMap(BeanMapUtils.mapToBean(map, UserBean.class, ignoreNull), false, false));
+        }
+        UserBean bean = BeanMapUtils.mapToBean(map, UserBean.class, true);
+        assertEquals(Long.valueOf(12), bean.getUserId());
+        assertEquals(Arrays.asList(3L, 4L), bean.getRoleIds());
+        assertNull(bean.getSecret());
+
+        Map<String, Object> nullAge = new HashMap<>();
+        nullAge.put("age", null);
+        nullAge.put("count", "3");
+        assertEquals(0, BeanMapUtils.mapToBean(nullAge, UserBean.class, false).getAge());
+        assertEquals(3, BeanMapUtils.mapToBean(nullAge, HiddenBean.class, false).getCount());
+    }
+
+    public void testRoundTrip() {
+        UserBean bean = newUser();
+        Map<String, Object> map = BeanMapUtils.beanToMap(bean, true, false);
+        UserBean copy = BeanMapUtils.mapToBean(map, UserBean.class, false);
+        assertEquals(hutoolToMap(bean, false, false), hutoolToMap(copy, false, false));
+    }
+
+    public void testBulkConversion() {
+        List<UserBean> beans = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            UserBean bean = newUser();
+            bean.setUserId((long) i);
+            beans.add(bean);
+        }
+        List<Map<String, Object>> maps = BeanMapUtils.beansToMaps(beans, true, true);
+        List<Map<String, Object>> parallelMaps = BeanMapUtils.beansToMaps(beans, true, true, true);
+        assertEquals(maps, parallelMaps);
+        for (int i = 0; i < beans.size(); i += 97) {
+            assertEquals(hutoolToMap(beans.get(i), true, true), maps.get(i));
+        }
+
+        List<UserBean> copies = BeanMapUtils.mapsToBeans(maps, UserBean.class, false, true);
+        assertEquals(beans.size(), copies.size());
+        assertEquals(Long.valueOf(4321), copies.get(4321).getUserId());
+
+        BeanColumns columns = BeanMapUtils.beansToColumns(beans, UserBean.class, true);
+        assertEquals(5000, columns.size());
+        assertEquals(4321L, columns.get(4321, "user_id"));
+        assertNull(columns.get(0, "boxed_flag"));
+        assertEquals(hutoolToMap(beans.get(10), true, false), columns.toMaps().get(10));
+
+        beans.set(7, null);
+        try {
+            BeanMapUtils.beansToColumns(beans, UserBean.class, true);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().endsWith("index 7"));
+        }
+    }
+
+    public void testBeanAsMap() {
+        UserBean bean = newUser();
+        for (boolean underline : new boolean[]{false, true}) {
+            for (boolean ignoreNull : new boolean[]{false, true}) {
+                Map<String, Object> view = BeanMapUtils.beanAsMap(bean, underline, ignoreNull);
+                Map<String, Object> expected = hutoolToMap(bean, underline, ignoreNull);
+                assertEquals(expected, view);
+                assertEquals(expected, new HashMap<>(view));
+                assertEquals(expected.size(), view.size());
+                assertEquals(expected.hashCode(), view.hashCode());
+            }
+        }
+        Map<String, Object> view = BeanMapUtils.beanAsMap(bean, true, true);
+        assertFalse(view.containsKey("boxed_flag"));
+        bean.setBoxedFlag(true);
+        assertEquals(Boolean.TRUE, view.get("boxed_flag"));
+        assertNull(view.get("boxedFlag"));
+        try {
+            view.put("age", 1);
+            fail();
+        } catch (UnsupportedOperationException expected) {
+            // ok
+        }
+
+        Map<String, Object> writable = BeanMapUtils.beanAsMap(bean, true, false, true);
+        assertEquals(18, writable.put("age", "20"));
+        assertEquals(20, bean.getAge());
+        for (Map.Entry<String, Object> entry : writable.entrySet()) {
+            if (entry.getKey().equals("user_id")) {
+                entry.setValue(7L);
+            }
+        }
+        assertEquals(Long.valueOf(7), bean.getUserId());
+    }
+
+    public void testBeanAsMapEntries() {
+        UserBean bean = newUser();
+        Map<String, Object> view = BeanMapUtils.beanAsMap(bean, true, false);
+        // 每个Entry独立，可以保存
+        List<Map.Entry<String, Object>> entries = new ArrayList<>(view.entrySet());
+        assertEquals(view.size(), entries.size());
+        Map<String, Object> copied = new HashMap<>();
+        for (Map.Entry<String, Object> entry : entries) {
+            copied.put(entry.getKey(), entry.getValue());
+        }
+        assertEquals(hutoolToMap(bean, true, false), copied);
+        assertEquals(view, view.entrySet().stream().collect(HashMap::new, (m, e) -> m.put(e.getKey(), e.getValue()),
+                HashMap::putAll));
+
+        SelfBean self = new SelfBean();
+        self.setParent(self);
+        for (boolean ignoreNull : new boolean[]{false, true}) {
+            Map<String, Object> expected = BeanMapUtils.beanToMap(self, false, ignoreNull);
+            Map<String, Object> selfView = BeanMapUtils.beanAsMap(self, false, ignoreNull);
+            assertEquals(expected, selfView);
+            assertEquals(expected.size(), selfView.size());
+            assertEquals(expected.keySet(), selfView.keySet());
+            assertFalse(selfView.containsKey("parent"));
+        }
+        self.setParent("other");
+        assertEquals(2, BeanMapUtils.beanAsMap(self, false, false).size());
+
+        assertNull(BeanMapUtils.beanToMap(null, false, false));
+        assertNull(BeanMapUtils.beanAsMap(null, false, false));
+    }
+
+    public void testCopyPropertiesSameAsMapRoundTrip() {
+        UserBean bean = newUser();
+        bean.setBaseName(null);
+        for (boolean underline : new boolean[]{false, true}) {
+            for (boolean ignoreNull : new boolean[]{false, true}) {
+                UserVo expected = BeanMapUtils.mapToBean(BeanMapUtils.beanToMap(bean, underline, ignoreNull),
+                        UserVo.class, ignoreNull);
+                UserVo actual = BeanMapUtils.copyProperties(bean, UserVo.class, underline, ignoreNull);
+                assertEquals(hutoolToMap(expected, false, false), hutoolToMap(actual, false, false));
+            }
+        }
+        UserVo vo = BeanMapUtils.copyProperties(bean, UserVo.class, false, true);
+        assertEquals("5", vo.getUserId());
+        assertEquals("true", vo.getActive());
+
+        UserVo target = new UserVo();
+        target.setBaseName("keep");
+        target.setExtra("extra");
+        BeanMapUtils.copyProperties(bean, target, true);
+        assertEquals("keep", target.getBaseName());
+        assertEquals("extra", target.getExtra());
+        assertEquals(Integer.valueOf(18), target.getAge());
+        // 源对象为null时目标不变，与 copyProperties(null, Class) 返回null对应
+        assertSame(target, BeanMapUtils.copyProperties(null, target, false));
+        assertEquals("keep", target.getBaseName());
+        assertNull(BeanMapUtils.copyProperties(null, UserVo.class, false, false));
+
+        List<UserBean> beans = Arrays.asList(bean, null, newUser());
+        List<UserVo> vos = BeanMapUtils.copyList(beans, UserVo.class, false, false);
+        assertEquals(3, vos.size());
+        assertNull(vos.get(1));
+        assertEquals("base", vos.get(2).getBaseName());
+    }
+
+    /**
+     * 子加载器的类与父加载器的类互相复制后，复制计划不阻止子加载器卸载
+     * hutool的反射缓存弱引用key、强引用value，本身会保留类，先清空它们，只检查本工具的缓存
+     */
+    public void testCopyPlanDoesNotPinChildLoader() throws Exception {
+        WeakReference<ClassLoader> loader = copyWithChildLoader();
+        BeanDescCache.INSTANCE.clear();
+        for (String name : new String[]{"CONSTRUCTORS_CACHE", "FIELDS_CACHE", "METHODS_CACHE"}) {
+            Field field = ReflectUtil.class.getDeclaredField(name);
+            field.setAccessible(true);
+            ((Map<?, ?>) field.get(null)).clear();
+        }
+        for (int i = 0; i < 50 && loader.get() != null; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertNull(loader.get());
+    }
+
+    private static WeakReference<ClassLoader> copyWithChildLoader() throws Exception {
+        ClassLoader loader = new ChildLoader();
+        Class<?> type = loader.loadClass(PluginBean.class.getName());
+        assertNotSame(PluginBean.class, type);
+        Object plugin = type.getConstructor().newInstance();
+        type.getMethod("setName", String.class).invoke(plugin, "plugin");
+        assertEquals("plugin", BeanMapUtils.copyProperties(plugin, SelfBean.class, false, false).getName());
+        SelfBean self = new SelfBean();
+        Object copy = BeanMapUtils.copyProperties(self, type, false, false);
+        assertEquals("self", type.getMethod("getName").invoke(copy));
+        return new WeakReference<>(loader);
+    }
+}
@@ -0,0 +1,233 @@
+package com.zyy.tools;
+
+import com.zyy.tools.util.AdaptiveSection;
+import com.zyy.tools.util.DataSectionUtils;
+import com.zyy.tools.util.LongObjectHashMap;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class DataSectionTest extends TestCase {
+
+    private static List<Integer> range(int count) {
+        return IntStream.range(0, count).boxed().collect(Collectors.toList());
+    }
+
+    public void testSequential() {
+        List<Integer> params = range(2500);
+        List<Integer> sizes = new ArrayList<>();
+        List<Integer> result = DataSectionUtils.dataSection(part -> {
+            sizes.add(part.size());
+            return part;
+        }, params);
+        assertEquals(params, result);
+        assertEquals("[1000, 1000, 500]", sizes.toString());
+        assertTrue(DataSectionUtils.dataSection(part -> part, new ArrayList<Integer>()).isEmpty());
+    }
+
+    public void testParallelKeepsOrder() {
+        List<Integer> params = range(10007);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<String> result = DataSectionUtils.dataSectionParallel(part -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            return part.stream().map(String::valueOf).collect(Collectors.toList());
+        }, params, 100, 4);
+        assertEquals(params.stream().map(String::valueOf).collect(Collectors.toList()), result);
+        assertTrue(maxRunning.get() <= 4);
+    }
+
+    public void testParallelStopsOnFailure() {
+        AtomicInteger calls = new AtomicInteger();
+        AtomicReference<Thread> failing = new AtomicReference<>();
+        CountDownLatch failed = new CountDownLatch(1);
+        try {
+            DataSectionUtils.dataSectionParallel(part -> {
+                calls.incrementAndGet();
+                if (part.get(0) == 0) {
+                    failing.set(Thread.currentThread());
+                    failed.countDown();
+                    throw new IllegalStateException("boom");
+                }
+                // 第0片最先被取走，其余分片等它失败且所在线程记录异常、离开分片循环后再返回
+                try {
+                    failed.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                while (failing.get().getState() == Thread.State.RUNNABLE) {
+                    Thread.yield();
+                }
+                return part;
+            }, range(100000), 10, 2);
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("boom", e.getMessage());
+        }
+        // 第0片和另一线程正在等待的一片
+        assertTrue(calls.get() <= 2);
+    }
+
+    /**
+     * 在线程池唯一的线程中调用：协助任务排在当前任务之后，调用线程执行完全部分片后不等待它们
+     */
+    public void testParallelInsideSamePool() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            List<Integer> params = range(100);
+            Future<List<Integer>> future = executor.submit(() ->
+                    DataSectionUtils.dataSectionParallel(part -> part, params, 10, executor, 4));
+            assertEquals(params, future.get(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    public void testLazyIterator() {
+        AtomicInteger calls = new AtomicInteger();
+        Iterator<Integer> iterator = DataSectionUtils.dataSectionIterator(part -> {
+            calls.incrementAndGet();
+            return part;
+        }, range(2500), 1000);
+        assertEquals(0, calls.get());
+        assertEquals(Integer.valueOf(0), iterator.next());
+        assertEquals(1, calls.get());
+        int count = 1;
+        while (iterator.hasNext()) {
+            assertEquals(Integer.valueOf(count++), iterator.next());
+        }
+        assertEquals(2500, count);
+        assertEquals(3, calls.get());
+    }
+
+    public void testReadAheadWithoutExecutor() {
+        // 未指定线程池时预读使用内置线程池
+        Iterator<Integer> iterator = DataSectionUtils.dataSectionIterator(part -> part, range(1000), 100, null, 2);
+        int count = 0;
+        while (iterator.hasNext()) {
+            assertEquals(Integer.valueOf(count++), iterator.next());
+        }
+        assertEquals(1000, count);
+    }
+
+    public void testReadAheadIsBounded() {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            AtomicInteger calls = new AtomicInteger();
+            Iterator<Integer> iterator = DataSectionUtils.dataSectionIterator(part -> {
+                calls.incrementAndGet();
+                return part;
+            }, range(10000), 100, executor, 2);
+            assertEquals(Integer.valueOf(0), iterator.next());
+            // 当前片 + 预读2片
+            assertTrue(calls.get() <= 3);
+            int count = 1;
+            while (iterator.hasNext()) {
+                assertEquals(Integer.valueOf(count++), iterator.next());
+            }
+            assertEquals(10000, count);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    public void testStreamAndEach() {
+        List<Integer> params = range(3001);
+        assertEquals(params, DataSectionUtils.dataSectionStream(part -> part, params, 500, 2).collect(Collectors.toList()));
+        List<Integer> sizes = new ArrayList<>();
+        DataSectionUtils.dataSectionEach(part -> part, params, 1000, part -> sizes.add(part.size()));
+        assertEquals("[1000, 1000, 1000, 1]", sizes.toString());
+    }
+
+    public void testAdaptiveSectionAimd() {
+        AdaptiveSection adaptive = new AdaptiveSection(100, 5000, 1000, 50, 100, 0.5);
+        adaptive.record(1000, 10, 10_000_000L);
+        assertEquals(1100, adaptive.getSectionSize());
+        adaptive.record(1100, 10, 80_000_000L);
+        assertEquals(550, adaptive.getSectionSize());
+        // 不满一片不增长
+        adaptive.record(20, 10, 1_000_000L);
+        assertEquals(550, adaptive.getSectionSize());
+        for (int i = 0; i < 10; i++) {
+            adaptive.record(adaptive.getSectionSize(), 10, 500_000_000L);
+        }
+        assertEquals(100, adaptive.getSectionSize());
+        assertEquals(13, adaptive.getCalls());
+    }
+
+    public void testAdaptiveDataSection() {
+        List<Integer> params = range(20000);
+        AdaptiveSection adaptive = new AdaptiveSection(10, 1000, 100, 1000);
+        List<Integer> sizes = new ArrayList<>();
+        List<Integer> result = DataSectionUtils.dataSection(part -> {
+            sizes.add(part.size());
+            return part;
+        }, params, adaptive);
+        assertEquals(params, result);
+        assertTrue(sizes.get(sizes.size() - 2) > 100);
+        assertEquals(sizes.size(), adaptive.getCalls());
+    }
+
+    public void testSectionToMap() {
+        long[] ids = {5, 3, 0, 5, 9, 3, 7, -1};
+        List<List<Long>> calls = new ArrayList<>();
+        LongObjectHashMap<String> map = DataSectionUtils.dataSectionToMap(part -> {
+            calls.add(new ArrayList<>(part));
+            // 7 查不到，结果顺序与参数无关
+            List<String> rows = new ArrayList<>();
+            for (int i = part.size() - 1; i >= 0; i--) {
+                if (part.get(i) != 7) {
+                    rows.add(String.valueOf(part.get(i)));
+                }
+            }
+            return rows;
+        }, ids, Long::parseLong, 2, true);
+        assertEquals("[[5, 3], [0, 9], [7, -1]]", calls.toString());
+        assertEquals("[5, 3, 0, 9, -1]", Arrays.toString(map.keys()));
+        assertEquals("[5, 3, 0, 9, -1]", map.values().toString());
+        assertEquals("0", map.get(0));
+        assertNull(map.get(7));
+
+        map.remove(3);
+        assertEquals("[5, 0, 9, -1]", Arrays.toString(map.keys()));
+    }
+
+    public void testLongObjectHashMap() {
+        LongObjectHashMap<Long> map = new LongObjectHashMap<>();
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(1);
+        for (int i = 0; i < 50000; i++) {
+            long key = random.nextInt(500) - 250;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.put(key, (long) i), map.put(key, (long) i));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.zyy.tools;
+
+import cn.hutool.core.date.DateUtil;
+import com.zyy.tools.util.DateUtils;
+import com.zyy.tools.util.FixedDateParser;
+
+import java.lang.management.ManagementFactory;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.TimeZone;
+
+/**
+ * DateUtils 格式化耗时、内存分配对比：每次新建 SimpleDateFormat、getDateFormat、
+ * 按默认时区追加到StringBuilder（每次取默认时区会复制）、指定时区追加到StringBuilder
+ * 解析对比：hutool 解析、定长格式直接解析为时间戳
+ */
+public class DateUtilsBenchmark {
+
+    private static final int ROUNDS = 3;
+
+    private static final int COUNT = 500_000;
+
+    private interface Task {
+        Object run(long millis);
+    }
+
+    private static Object sink;
+
+    public static void main(String[] args) {
+        long base = System.currentTimeMillis();
+        TimeZone zone = TimeZone.getDefault();
+        StringBuilder sb = new StringBuilder(64);
+        for (String pattern : new String[]{"yyyy-MM-dd HH:mm:ss", "yyyy/MM/dd HH:mm:ss.SSS"}) {
+            System.out.println(pattern);
+            for (int round = 1; round <= ROUNDS; round++) {
+                System.out.println("round " + round);
+                time("new SimpleDateFormat", millis -> new SimpleDateFormat(pattern).format(new Date(millis)), base);
+                time("getDateFormat", millis -> DateUtils.getDateFormat(new Date(millis), pattern), base);
+                time("formatTo Date", millis -> {
+                    sb.setLength(0);
+                    DateUtils.formatTo(sb, date(millis), pattern);
+                    return sb;
+                }, base);
+                time("formatTo millis zone", millis -> {
+                    sb.setLength(0);
+                    DateUtils.formatTo(sb, millis, pattern, zone);
+                    return sb;
+                }, base);
+            }
+        }
+        String[] texts = new String[1024];
+        for (int i = 0; i < texts.length; i++) {
+            texts[i] = DateUtils.getDateFormat(new Date(base + i * 997_000L), "yyyy-MM-dd HH:mm:ss");
+        }
+        FixedDateParser parser = FixedDateParser.of("yyyy-MM-dd HH:mm:ss");
+        System.out.println("parse yyyy-MM-dd HH:mm:ss");
+        for (int round = 1; round <= ROUNDS; round++) {
+            System.out.println("round " + round);
+            time("hutool DateUtil.parse", millis -> DateUtil.parse(texts[(int) millis & 1023], "yyyy-MM-dd HH:mm:ss"), 0);
+            time("parseDate", millis -> DateUtils.parseDate(texts[(int) millis & 1023], "yyyy-MM-dd HH:mm:ss"), 0);
+            time("FixedDateParser", millis -> parser.parse(texts[(int) millis & 1023]), 0);
+            // 定长解析不接受的写法，回退到 hutool
+            time("hutool short fields", millis -> DateUtil.parse("2024-1-5 1:2:3", "yyyy-MM-dd HH:mm:ss"), 0);
+            time("parseDate short fields", millis -> DateUtils.parseDate("2024-1-5 1:2:3", "yyyy-MM-dd HH:mm:ss"), 0);
+        }
+    }
+
+    private static final Date DATE = new Date();
+
+    /**
+     * 复用同一个Date，只测格式化本身的分配
+     */
+    private static Date date(long millis) {
+        DATE.setTime(millis);
+        return DATE;
+    }
+
+    private static void time(String name, Task task, long base) {
+        long allocated = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < COUNT; i++) {
+            sink = task.run(base + i * 1000L);
+        }
+        long nanos = System.nanoTime() - start;
+        allocated = allocatedBytes() - allocated;
+        System.out.printf("  %-24s %8.1f ns/op %8.1f bytes/op%n", name, (double) nanos / COUNT,
+                (double) allocated / COUNT);
+    }
+
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,118 @@
+package com.zyy.tools;
+
+import com.zyy.tools.util.DateUtils;
+import junit.framework.TestCase;
+
+import java.io.StringWriter;
+import java.text.SimpleDateFormat;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+
+/**
+ * DateUtils 格式化测试，结果与 SimpleDateFormat 逐一对比
+ */
+public class DateUtilsTest extends TestCase {
+
+    private static final String[] PATTERNS = {"yyyy-MM-dd", "yyyy-MM-dd HH:mm:ss", "yyyyMMddHHmmss",
+            "yyyy/MM/dd HH:mm:ss.SSS", "yy-M-d H:m:s", "HH:mm", "yyyyMMdd", "yyyy年MM月dd日", "yyyy-MM-dd'T'HH:mm:ss",
+            "EEE, d MMM yyyy", "yyyy-MM-dd hh:mm a", "S", "yyyyy-DDD", "Z", "[yyyy]", "y"};
+
+    private static final String[] ZONES = {"Asia/Shanghai", "UTC", "America/New_York", "Asia/Kolkata",
+            "GMT-03:30", "Pacific/Kiritimati"};
+
+    private static long[] samples() {
+        Random random = new Random(42);
+        long[] samples = new long[400];
+        for (int i = 0; i < samples.length; i++) {
+            // 公元1000年 ~ 12000年
+            samples[i] = -30610224000000L + (long) (random.nextDouble() * 3.4e14);
+        }
+        samples[0] = -12219292800000L;
+        samples[1] = -12219292800000L - 1;
+        samples[2] = 253402300799999L;
+        samples[3] = 0;
+        samples[4] = 1710054000000L;
+        return samples;
+    }
+
+    private static void assertSameAsSimpleDateFormat() throws Exception {
+        long[] samples = samples();
+        for (String pattern : PATTERNS) {
+            for (long millis : samples) {
+                Date date = new Date(millis);
+                String expected = new SimpleDateFormat(pattern).format(date);
+                String message = pattern + " @ " + millis + " " + TimeZone.getDefault().getID() + " "
+                        + Locale.getDefault(Locale.Category.FORMAT);
+                assertEquals(message, expected, DateUtils.getDateFormat(date, pattern));
+                StringBuilder sb = new StringBuilder("x");
+                DateUtils.formatTo(sb, date, pattern);
+                assertEquals(message, "x" + expected, sb.toString());
+                StringWriter writer = new StringWriter();
+                DateUtils.formatTo(writer, date, pattern);
+                assertEquals(message, expected, writer.toString());
+            }
+        }
+    }
+
+    public void testSameAsSimpleDateFormat() throws Exception {
+        TimeZone zone = TimeZone.getDefault();
+        try {
+            for (String id : ZONES) {
+                TimeZone.setDefault(TimeZone.getTimeZone(id));
+                assertSameAsSimpleDateFormat();
+            }
+        } finally {
+            TimeZone.setDefault(zone);
+        }
+    }
+
+    public void testNonGregorianLocales() throws Exception {
+        Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+        try {
+            for (Locale l : new Locale[]{new Locale("th", "TH"), Locale.forLanguageTag("ar-EG"),
+                    new Locale("ja", "JP", "JP"), Locale.US}) {
+                Locale.setDefault(Locale.Category.FORMAT, l);
+                assertSameAsSimpleDateFormat();
+            }
+        } finally {
+            Locale.setDefault(Locale.Category.FORMAT, locale);
+        }
+    }
+
+    public void testAlternatingLocales() {
+        Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+        Locale[] locales = {new Locale("th", "TH"), Locale.US, Locale.forLanguageTag("ar-EG"), Locale.CHINA};
+        try {
+            Date date = new Date(1710054000000L);
+            for (int i = 0; i < 40; i++) {
+                Locale l = locales[i % locales.length];
+                Locale.setDefault(Locale.Category.FORMAT, l);
+                assertEquals(l.toString(), new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(date),
+                        DateUtils.getDateFormat(date, "yyyy-MM-dd HH:mm:ss"));
+            }
+        } finally {
+            Locale.setDefault(Locale.Category.FORMAT, locale);
+        }
+    }
+
+    public void testExplicitZone() {
+        TimeZone zone = TimeZone.getTimeZone("America/New_York");
+        for (long millis : samples()) {
+            SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+            sdf.setTimeZone(zone);
+            StringBuilder sb = new StringBuilder();
+            DateUtils.formatTo(sb, millis, "yyyy-MM-dd HH:mm:ss", zone);
+            assertEquals(sdf.format(new Date(millis)), sb.toString());
+        }
+    }
+
+    public void testFormatterRegistry() {
+        ZoneId zone = ZoneId.of("Asia/Shanghai");
+        assertSame(DateUtils.getFormatter("yyyy-MM-dd", zone), DateUtils.getFormatter("yyyy-MM-dd", zone));
+        assertNotSame(DateUtils.getFormatter("yyyy-MM-dd", zone), DateUtils.getFormatter("yyyy-MM-dd", ZoneId.of("UTC")));
+        assertEquals("1970-01-01 08", DateUtils.getFormatter("yyyy-MM-dd HH", zone).format(java.time.Instant.EPOCH));
+    }
+}
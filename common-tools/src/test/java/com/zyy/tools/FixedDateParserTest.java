@@ -0,0 +1,179 @@
+package com.zyy.tools;
+
+import cn.hutool.core.date.DateException;
+import cn.hutool.core.date.DateUtil;
+import com.zyy.tools.util.DateUtils;
+import com.zyy.tools.util.FixedDateParser;
+import junit.framework.TestCase;
+
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+import java.util.Random;
+import java.util.TimeZone;
+
+/**
+ * FixedDateParser 解析测试，结果与 SimpleDateFormat 逐一对比
+ */
+public class FixedDateParserTest extends TestCase {
+
+    private static final String[] PATTERNS = {"yyyy-MM-dd", "yyyy-MM-dd HH:mm:ss", "yyyyMMddHHmmss",
+            "yyyy/MM/dd HH:mm:ss.SSS", "HH:mm", "yyyyMMdd", "yyyy-MM"};
+
+    private static final String[] ZONES = {"Asia/Shanghai", "UTC", "America/New_York", "Europe/London",
+            "Australia/Lord_Howe", "Pacific/Kiritimati"};
+
+    public void testSameAsSimpleDateFormat() throws Exception {
+        Random random = new Random(7);
+        for (String id : ZONES) {
+            TimeZone zone = TimeZone.getTimeZone(id);
+            for (String pattern : PATTERNS) {
+                FixedDateParser parser = FixedDateParser.of(pattern, zone);
+                assertTrue(pattern, parser.isCompiled());
+                SimpleDateFormat format = strict(pattern, zone);
+                for (int i = 0; i < 500; i++) {
+                    // 公元1000年 ~ 9999年
+                    long millis = -30610224000000L + (long) (random.nextDouble() * 2.8e14);
+                    String text = format.format(new Date(millis));
+                    String message = pattern + " " + id + " " + text;
+                    assertEquals(message, format.parse(text).getTime(), parser.parse(text));
+                }
+                // 夏令时切换附近逐小时
+                for (long millis = 1710000000000L; millis < 1710000000000L + 400 * 86400000L; millis += 1800000L) {
+                    String text = format.format(new Date(millis));
+                    assertEquals(pattern + " " + id + " " + text, format.parse(text).getTime(), parser.parse(text));
+                }
+            }
+        }
+    }
+
+    private static SimpleDateFormat strict(String pattern, TimeZone zone) {
+        SimpleDateFormat format = new SimpleDateFormat(pattern);
+        format.setTimeZone(zone);
+        format.setLenient(false);
+        return format;
+    }
+
+    /**
+     * 与原来的 parseDate（hutool 非宽松解析）接受同样的日期，结果相同
+     */
+    public void testSameAsLegacyParseDate() {
+        String[] texts = {"2024-03-10 02:30:00", "2024-03-31 01:30:00", "2024-10-06 02:15:00", "2024-11-03 01:30:00",
+                "2024-10-27 01:30:00", "2024-04-07 02:30:00", "0000-01-01 00:00:00", "0001-01-01 00:00:00",
+                "1500-02-29 12:00:00", "1582-10-10 00:00:00", "1582-10-04 23:59:59", "1582-10-15 00:00:00",
+                "1900-02-29 00:00:00", "2000-02-29 00:00:00", "9999-12-31 23:59:59", "2024-01-01 00:00:00",
+                // 定长解析不接受、原解析接受的写法
+                "2024-1-5 1:2:3", "2024-01-05 00:00:00 extra", "2024-01-05 00:00:00x"};
+        String pattern = "yyyy-MM-dd HH:mm:ss";
+        TimeZone zone = TimeZone.getDefault();
+        try {
+            for (String id : ZONES) {
+                TimeZone.setDefault(TimeZone.getTimeZone(id));
+                for (String text : texts) {
+                    Long legacy;
+                    try {
+                        legacy = DateUtil.parse(text, pattern).getTime();
+                    } catch (DateException e) {
+                        legacy = null;
+                    }
+                    Long date;
+                    try {
+                        date = DateUtils.parseDate(text, pattern).getTime();
+                    } catch (DateException e) {
+                        date = null;
+                    }
+                    assertEquals(id + " " + text, legacy, date);
+                    Long millis;
+                    try {
+                        millis = FixedDateParser.of(pattern).parse(text);
+                    } catch (DateTimeParseException e) {
+                        millis = null;
+                    }
+                    // 定长解析只接受原解析能接受的子集，接受时结果相同；定长的写法两者同时拒绝
+                    if (millis != null) {
+                        assertEquals(id + " " + text, legacy, millis);
+                    } else if (text.length() == pattern.length()) {
+                        assertNull(id + " " + text, legacy);
+                    }
+                }
+            }
+        } finally {
+            TimeZone.setDefault(zone);
+        }
+    }
+
+    public void testCachedPerZone() {
+        TimeZone shanghai = TimeZone.getTimeZone("Asia/Shanghai");
+        FixedDateParser parser = FixedDateParser.of("yyyy-MM-dd", shanghai);
+        assertSame(parser, FixedDateParser.of("yyyy-MM-dd", TimeZone.getTimeZone("Asia/Shanghai")));
+        assertNotSame(parser, FixedDateParser.of("yyyy-MM-dd", TimeZone.getTimeZone("UTC")));
+        // 解析器持有时区副本，修改传入的时区不影响
+        shanghai.setRawOffset(0);
+        assertEquals(-28800000L, parser.parse("1970-01-01"));
+    }
+
+    public void testRange() {
+        TimeZone utc = TimeZone.getTimeZone("UTC");
+        FixedDateParser parser = FixedDateParser.of("yyyyMMddHHmmss", utc);
+        String text = "id=20240229123456;";
+        assertEquals(1709210096000L, parser.parse(text, 3, 17));
+        byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+        assertEquals(1709210096000L, parser.parse(bytes, 3, 14));
+    }
+
+    public void testStrict() {
+        FixedDateParser parser = FixedDateParser.of("yyyy-MM-dd HH:mm:ss", TimeZone.getTimeZone("UTC"));
+        assertError(parser, "2024-02-30 00:00:00", 8);
+        assertError(parser, "2023-02-29 00:00:00", 8);
+        assertError(parser, "2024-13-01 00:00:00", 5);
+        assertError(parser, "2024-00-01 00:00:00", 5);
+        assertError(parser, "2024-01-01 24:00:00", 11);
+        assertError(parser, "2024-01-01 00:60:00", 14);
+        assertError(parser, "2024-01-01 00:00:60", 17);
+        assertError(parser, "2024/01/01 00:00:00", 4);
+        assertError(parser, "2024-01-0x 00:00:00", 9);
+        assertError(parser, "2024-01-01 00:00:0", 18);
+        assertError(parser, "2024-01-01 00:00:000", 19);
+        assertError(parser, "+024-01-01 00:00:00", 0);
+    }
+
+    private static void assertError(FixedDateParser parser, String text, int index) {
+        try {
+            parser.parse(text);
+            fail(text);
+        } catch (DateTimeParseException e) {
+            assertEquals(text, index, e.getErrorIndex());
+            assertEquals(text, e.getParsedString());
+        }
+    }
+
+    public void testFallback() throws Exception {
+        TimeZone zone = TimeZone.getTimeZone("Asia/Shanghai");
+        for (String pattern : new String[]{"yyyy-MM-dd'T'HH:mm:ss", "yy-M-d", "yyyy年MM月dd日", "dd MMM yyyy"}) {
+            FixedDateParser parser = FixedDateParser.of(pattern, zone);
+            assertFalse(pattern, parser.isCompiled());
+            SimpleDateFormat format = strict(pattern, zone);
+            String text = format.format(new Date(1710054000000L));
+            assertEquals(pattern, format.parse(text).getTime(), parser.parse(text));
+        }
+        // 回退解析失败时同样抛出 DateTimeParseException
+        try {
+            FixedDateParser.of("yy-M-d", zone).parse("24-13-1");
+            fail();
+        } catch (DateTimeParseException e) {
+            assertTrue(e.getCause() instanceof DateException);
+        }
+    }
+
+    public void testParseDate() throws Exception {
+        assertNull(DateUtils.parseDate(null, "yyyy-MM-dd"));
+        assertNull(DateUtils.parseDate(" ", "yyyy-MM-dd"));
+        String pattern = "yyyy-MM-dd HH:mm:ss";
+        SimpleDateFormat format = new SimpleDateFormat(pattern);
+        assertEquals(format.parse("2024-03-10 12:34:56"), DateUtils.parseDate("2024-03-10 12:34:56", pattern));
+        assertEquals(format.parse("2024-03-10 12:34:56").getTime(), DateUtils.parseMillis("2024-03-10 12:34:56", pattern));
+        // 不符合定长格式时仍按原方式解析
+        assertEquals(format.parse("2024-03-10 12:34:56"), DateUtils.parseDate("2024-3-10 12:34:56", pattern));
+    }
+}
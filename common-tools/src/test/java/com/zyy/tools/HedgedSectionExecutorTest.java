@@ -0,0 +1,164 @@
+package com.zyy.tools;
+
+import com.zyy.tools.util.HedgedSectionExecutor;
+import junit.framework.TestCase;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class HedgedSectionExecutorTest extends TestCase {
+
+    private static List<Integer> range(int count) {
+        return IntStream.range(0, count).boxed().collect(Collectors.toList());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public void testHedgeWinsOverSlowCall() {
+        AtomicBoolean slowed = new AtomicBoolean();
+        HedgedSectionExecutor<Integer, Integer> executor = new HedgedSectionExecutor<>(part -> {
+            // 预热之后的分片第一次调用变慢，对冲调用正常返回；按分片内容判断，不受预热中残留的对冲调用影响
+            sleep(part.get(0) == 100 && slowed.compareAndSet(false, true) ? 2000 : 2);
+            return part;
+        }, 10, 0, 0.9);
+        for (int i = 0; i < 4; i++) {
+            assertEquals(range(100), executor.execute(range(100)));
+        }
+        assertTrue(executor.getHedgeDelayMillis() >= 0);
+        List<Integer> params = IntStream.range(100, 110).boxed().collect(Collectors.toList());
+        long start = System.currentTimeMillis();
+        assertEquals(params, executor.execute(params));
+        assertTrue(System.currentTimeMillis() - start < 1500);
+        assertTrue(executor.getHedgesFired() >= 1);
+        assertTrue(executor.getHedgesWon() >= 1);
+    }
+
+    public void testDeadline() {
+        HedgedSectionExecutor<Integer, Integer> executor = new HedgedSectionExecutor<>(part -> {
+            sleep(part.get(0) == 20 ? 1000 : 1);
+            return part;
+        }, 10, 100, 0);
+        try {
+            executor.execute(range(50));
+            fail();
+        } catch (IllegalStateException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+        assertEquals(1, executor.getTimeouts());
+        assertEquals(0, executor.getHedgesFired());
+    }
+
+    private static HedgedSectionExecutor<Integer, Integer> warmedUp(AtomicInteger slowCalls) {
+        HedgedSectionExecutor<Integer, Integer> executor = new HedgedSectionExecutor<>(part -> {
+            if (part.get(0) != 100) {
+                sleep(2);
+                return part;
+            }
+            // 预热之后的分片：第一次调用慢，第二次调用（对冲）快
+            int call = slowCalls.incrementAndGet();
+            if (call == 1) {
+                sleep(300);
+                throw new IllegalStateException("primary");
+            }
+            sleep(call == 2 ? 600 : 2);
+            return part;
+        }, 10, 0, 0.9);
+        for (int i = 0; i < 4; i++) {
+            executor.execute(range(100));
+        }
+        assertTrue(executor.getHedgeDelayMillis() >= 0);
+        return executor;
+    }
+
+    public void testFailedPrimaryWaitsForHedge() {
+        AtomicInteger calls = new AtomicInteger();
+        HedgedSectionExecutor<Integer, Integer> executor = warmedUp(calls);
+        List<Integer> params = IntStream.range(100, 110).boxed().collect(Collectors.toList());
+        // 首次调用 300ms 后失败时对冲调用仍在执行，等它返回
+        assertEquals(params, executor.execute(params));
+        assertEquals(2, calls.get());
+        assertEquals(1, executor.getHedgesWon());
+    }
+
+    public void testFailedHedgeWaitsForPrimary() {
+        AtomicInteger calls = new AtomicInteger();
+        HedgedSectionExecutor<Integer, Integer> executor = new HedgedSectionExecutor<>(part -> {
+            if (part.get(0) != 100) {
+                sleep(2);
+                return part;
+            }
+            if (calls.incrementAndGet() == 1) {
+                sleep(300);
+                return part;
+            }
+            throw new IllegalStateException("hedge");
+        }, 10, 0, 0.9);
+        for (int i = 0; i < 4; i++) {
+            executor.execute(range(100));
+        }
+        List<Integer> params = IntStream.range(100, 110).boxed().collect(Collectors.toList());
+        // 对冲调用很快失败，首次调用仍在执行，等它返回
+        assertEquals(params, executor.execute(params));
+        assertEquals(2, calls.get());
+        assertEquals(0, executor.getHedgesWon());
+    }
+
+    public void testAllAttemptsFail() {
+        HedgedSectionExecutor<Integer, Integer> executor = new HedgedSectionExecutor<>(part -> {
+            throw new IllegalStateException("boom");
+        }, 10, 0, 0);
+        try {
+            executor.execute(range(30));
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("boom", e.getMessage());
+        }
+    }
+
+    public void testQueueTimeNotCounted() {
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            // 单线程依次执行，后面的分片排队超过截止时间，但每片执行本身不超时
+            HedgedSectionExecutor<Integer, Integer> executor = new HedgedSectionExecutor<>(part -> {
+                sleep(40);
+                return part;
+            }, 10, 100, 0.5, pool, 10);
+            assertEquals(range(60), executor.execute(range(60)));
+            assertEquals(0, executor.getTimeouts());
+            // 记录的是执行耗时，不含排队
+            assertTrue(executor.getLatencyPercentileMillis(0.99) < 100);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    public void testMaxInFlight() {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger maxRunning = new AtomicInteger();
+            HedgedSectionExecutor<Integer, Integer> executor = new HedgedSectionExecutor<>(part -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                sleep(5);
+                running.decrementAndGet();
+                return part;
+            }, 10, 0, 0, pool, 2);
+            assertEquals(range(200), executor.execute(range(200)));
+            assertTrue(maxRunning.get() <= 2);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.zyy.tools;
+
+import com.zyy.tools.util.Id128;
+import com.zyy.tools.util.Id128HashSet;
+import com.zyy.tools.util.UuidUtil;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * HashSet&lt;String&gt; 与 Id128HashSet 内存占用对比
+ * 建议使用 -Xmx2g 运行
+ */
+public class Id128FootprintBenchmark {
+
+    private static final int COUNT = 1_000_000;
+
+    public static void main(String[] args) {
+        String[] ids = new String[COUNT];
+        UuidUtil.uuid32(ids);
+
+        long before = usedMemory();
+        Set<String> stringSet = new HashSet<>();
+        for (String id : ids) {
+            // 复制一份，模拟从数据库/消息中读取的独立字符串
+            stringSet.add(new String(id.toCharArray()));
+        }
+        long stringBytes = usedMemory() - before;
+
+        before = usedMemory();
+        Id128HashSet idSet = new Id128HashSet();
+        for (String id : ids) {
+            Id128 parsed = Id128.parseHex(id);
+            idSet.add(parsed.getMostSignificantBits(), parsed.getLeastSignificantBits());
+        }
+        long idBytes = usedMemory() - before;
+
+        System.out.printf("HashSet<String> : %,d bytes, %.1f bytes/id%n", stringBytes, (double) stringBytes / stringSet.size());
+        System.out.printf("Id128HashSet    : %,d bytes, %.1f bytes/id%n", idBytes, (double) idBytes / idSet.size());
+    }
+
+    private static long usedMemory() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,75 @@
+package com.zyy.tools;
+
+import com.zyy.tools.util.Id128;
+import com.zyy.tools.util.Id128HashMap;
+import com.zyy.tools.util.Id128HashSet;
+import com.zyy.tools.util.UuidUtil;
+import junit.framework.TestCase;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class Id128Test extends TestCase {
+
+    public void testHexAndBase62RoundTrip() {
+        for (int i = 0; i < 1000; i++) {
+            String hex = UuidUtil.uuid32();
+            Id128 id = Id128.parseHex(hex);
+            assertEquals(hex, id.toHex());
+            String base62 = id.toBase62();
+            assertEquals(22, base62.length());
+            assertEquals(id, Id128.parseBase62(base62));
+        }
+        assertEquals("0000000000000000000000", new Id128(0, 0).toBase62());
+        Id128 max = new Id128(-1L, -1L);
+        assertEquals(max, Id128.parseBase62(max.toBase62()));
+        assertEquals(new Id128(0, 61), Id128.parseBase62("000000000000000000000z"));
+        try {
+            Id128.parseBase62("zzzzzzzzzzzzzzzzzzzzzz");
+            fail();
+        } catch (IllegalArgumentException expected) {
+            // ok
+        }
+    }
+
+    public void testOrderMatchesHex() {
+        Id128 a = Id128.parseHex("7fffffffffffffff0000000000000000");
+        Id128 b = Id128.parseHex("8000000000000000000000000000000A");
+        assertTrue(a.compareTo(b) < 0);
+        assertTrue(a.toBase62().compareTo(b.toBase62()) < 0);
+    }
+
+    public void testHashSetAndMap() {
+        Random random = new Random(42);
+        Id128HashSet set = new Id128HashSet();
+        Id128HashMap<Integer> map = new Id128HashMap<>();
+        Map<Id128, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 50000; i++) {
+            // 取值范围小，制造重复和冲突
+            long msb = random.nextInt(200);
+            long lsb = random.nextInt(200);
+            Id128 id = new Id128(msb, lsb);
+            if (random.nextInt(4) == 0) {
+                assertEquals(expected.containsKey(id), set.remove(msb, lsb));
+                assertEquals(expected.remove(id), map.remove(msb, lsb));
+            } else {
+                assertEquals(!expected.containsKey(id), set.add(msb, lsb));
+                assertEquals(expected.put(id, i), map.put(msb, lsb, i));
+            }
+            assertEquals(expected.size(), set.size());
+            assertEquals(expected.size(), map.size());
+        }
+        for (Map.Entry<Id128, Integer> entry : expected.entrySet()) {
+            Id128 id = entry.getKey();
+            assertTrue(set.contains(id));
+            assertEquals(entry.getValue(), map.get(id));
+        }
+        int[] count = new int[1];
+        map.forEach((msb, lsb, value) -> {
+            assertEquals(expected.get(new Id128(msb, lsb)), value);
+            count[0]++;
+        });
+        assertEquals(expected.size(), count[0]);
+    }
+}
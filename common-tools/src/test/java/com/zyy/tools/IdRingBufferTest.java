@@ -0,0 +1,71 @@
+package com.zyy.tools;
+
+import com.zyy.tools.util.IdRingBuffer;
+import com.zyy.tools.util.RandomIdGenerator;
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class IdRingBufferTest extends TestCase {
+
+    public void testBulkFill() {
+        String[] ids = new String[1000];
+        RandomIdGenerator.secure().fill(ids, 32);
+        Set<String> set = new HashSet<>(Arrays.asList(ids));
+        assertEquals(1000, set.size());
+        for (String id : ids) {
+            assertTrue(id.matches("[0-9a-f]{12}4[0-9a-f]{3}[89ab][0-9a-f]{15}"));
+        }
+
+        long[] pairs = new long[600];
+        RandomIdGenerator.fast().fill(pairs);
+        for (int i = 0; i < pairs.length; i += 2) {
+            assertEquals(4, (pairs[i] >>> 12) & 0xF);
+            assertEquals(2, pairs[i + 1] >>> 62);
+        }
+
+        char[] block = new char[32 * 300];
+        RandomIdGenerator.fast().fill(block, 300);
+        assertTrue(new String(block, 32 * 299, 32).matches("[0-9a-f]{12}4[0-9a-f]{3}[89ab][0-9a-f]{15}"));
+    }
+
+    public void testRingBufferUniqueUnderConcurrency() throws Exception {
+        AtomicInteger sequence = new AtomicInteger();
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        try (IdRingBuffer buffer = new IdRingBuffer(() -> String.valueOf(sequence.incrementAndGet()), 1000, 256)) {
+            assertEquals(1024, buffer.capacity());
+            assertEquals(1024, buffer.size());
+            Thread[] threads = new Thread[8];
+            for (int t = 0; t < threads.length; t++) {
+                threads[t] = new Thread(() -> {
+                    try {
+                        for (int i = 0; i < 20000; i++) {
+                            String id = buffer.next();
+                            assertTrue("Duplicate id " + id, ids.add(id));
+                        }
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    }
+                });
+                threads[t].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        }
+        // 工作线程中的断言失败只会结束该线程，在测试线程中重新抛出
+        if (failure.get() instanceof Error) {
+            throw (Error) failure.get();
+        }
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        assertEquals(8 * 20000, ids.size());
+    }
+}
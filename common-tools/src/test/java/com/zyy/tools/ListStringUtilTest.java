@@ -0,0 +1,231 @@
+package com.zyy.tools;
+
+import com.zyy.tools.util.ListStringUtil;
+import junit.framework.TestCase;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * ListStringUtil 分割、拼接测试
+ */
+public class ListStringUtilTest extends TestCase {
+
+    private static List<String> view(CharSequence str, String delimiter, boolean trim, boolean ignoreEmpty, int limit) {
+        List<String> list = new ArrayList<>();
+        for (CharSequence part : ListStringUtil.splitView(str, delimiter, trim, ignoreEmpty, limit)) {
+            list.add(part.toString());
+        }
+        return list;
+    }
+
+    public void testToListSameAsStringSplit() {
+        String[] inputs = {"a,b,c", "a,,b", ",a,b", "a,b,,", " a , b ", "abc", ",", ",,a,,"};
+        for (String input : inputs) {
+            assertEquals(input, Arrays.asList(input.split(",")), ListStringUtil.toList(input));
+            assertEquals(input, Arrays.asList(input.split(",")), ListStringUtil.toList(input, ","));
+        }
+        assertTrue(ListStringUtil.toList("  ").isEmpty());
+        assertTrue(ListStringUtil.toList(null, ",").isEmpty());
+    }
+
+    public void testToListKeepsRegexContract() {
+        String[] symbols = {"\\|", "\\.", "[,;]", "\\s+", "", "a", "::", ",", "|", "."};
+        String[] inputs = {"a|b|c", "1.2.3", "a,b;c", "a  b\tc", "abc", "a::b:::c::", ",a,,"};
+        for (String symbol : symbols) {
+            for (String input : inputs) {
+                assertEquals(symbol + " " + input, Arrays.asList(input.split(symbol)), ListStringUtil.toList(input, symbol));
+            }
+        }
+        assertEquals(Arrays.asList("a", "b", "c"), ListStringUtil.toList("a|b|c", "\\|"));
+        assertEquals(Arrays.asList("a", "b", "c"), ListStringUtil.toList("a::b::c", "::"));
+        List<String> list = ListStringUtil.toList("a,b", ",");
+        list.add("c");
+        assertEquals(3, list.size());
+    }
+
+    public void testLiteralDelimiter() {
+        assertEquals(Arrays.asList("a", "b", "c"), ListStringUtil.split("a|b|c", "|", false, false, 0));
+        assertEquals(Arrays.asList("1", "2"), ListStringUtil.split("1.2", ".", false, false, 0));
+        assertEquals(Arrays.asList("a", ":b"), ListStringUtil.split("a:::b", "::", false, false, 0));
+    }
+
+    public void testSplitOptions() {
+        String str = " a , ,b,, c ";
+        assertEquals(Arrays.asList(" a ", " ", "b", "", " c "), ListStringUtil.split(str, ",", false, false, 0));
+        assertEquals(Arrays.asList("a", "", "b", "", "c"), ListStringUtil.split(str, ",", true, false, 0));
+        assertEquals(Arrays.asList(" a ", " ", "b", " c "), ListStringUtil.split(str, ",", false, true, 0));
+        assertEquals(Arrays.asList("a", "b", "c"), ListStringUtil.split(str, ",", true, true, 0));
+        assertEquals(Arrays.asList("a", ",b,, c"), ListStringUtil.split(str, ",", true, true, 2));
+        assertEquals(Arrays.asList(" a ", " ,b,, c "), ListStringUtil.split(str, ",", false, false, 2));
+        assertEquals(Arrays.asList("a<>b", "c"), ListStringUtil.split("a<>b<=>c", "<=>", false, false, 0));
+        assertEquals(Arrays.asList(""), ListStringUtil.split("", ",", false, false, 0));
+        assertTrue(ListStringUtil.split("", ",", false, true, 0).isEmpty());
+        try {
+            ListStringUtil.split("a", "", false, false, 0);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            // 分隔符不能为空
+        }
+    }
+
+    public void testSplitViewSameAsSplit() {
+        String[] inputs = {" a , ,b,, c ", "", ",", "a", "x::y::::z::", "::"};
+        String[] delimiters = {",", "::"};
+        for (String input : inputs) {
+            for (String delimiter : delimiters) {
+                for (int mask = 0; mask < 4; mask++) {
+                    for (int limit = 0; limit < 4; limit++) {
+                        boolean trim = (mask & 1) != 0;
+                        boolean ignoreEmpty = (mask & 2) != 0;
+                        List<String> expected = ListStringUtil.split(input, delimiter, trim, ignoreEmpty, limit);
+                        assertEquals(expected, view(input, delimiter, trim, ignoreEmpty, limit));
+                        assertEquals(expected, view(new StringBuilder(input), delimiter, trim, ignoreEmpty, limit));
+                    }
+                }
+            }
+        }
+    }
+
+    public void testSplitViewIsLazySlice() {
+        StringBuilder sb = new StringBuilder("ab,cd");
+        CharSequence first = ListStringUtil.splitView(sb, ",", false, false, 0).iterator().next();
+        assertEquals(2, first.length());
+        assertEquals('b', first.charAt(1));
+        assertEquals("b", first.subSequence(1, 2).toString());
+        sb.setCharAt(0, 'x');
+        assertEquals("xb", first.toString());
+    }
+
+    public void testToLongArray() {
+        assertTrue(Arrays.equals(new long[]{1, 22, 333}, ListStringUtil.toLongArray("1,22,333")));
+        assertTrue(Arrays.equals(new long[]{-5, 6, 7}, ListStringUtil.toLongArray(" -5 , +6,,7, ")));
+        assertTrue(Arrays.equals(new long[]{Long.MIN_VALUE, Long.MAX_VALUE},
+                ListStringUtil.toLongArray(Long.MIN_VALUE + "||" + Long.MAX_VALUE, "||")));
+        assertEquals(0, ListStringUtil.toLongArray("").length);
+        assertEquals(0, ListStringUtil.toLongArray(null).length);
+        long[] many = new long[1000];
+        for (int i = 0; i < many.length; i++) {
+            many[i] = i * 1000003L - 77;
+        }
+        assertTrue(Arrays.equals(many, ListStringUtil.toLongArray(ListStringUtil.toString(many))));
+        assertTrue(Arrays.equals(many, ListStringUtil.toLongArray(new StringBuilder(ListStringUtil.toString(many, " ; ")), ";")));
+    }
+
+    public void testToIntArray() {
+        assertTrue(Arrays.equals(new int[]{Integer.MIN_VALUE, 0, Integer.MAX_VALUE},
+                ListStringUtil.toIntArray("-2147483648,0,2147483647")));
+        List<Integer> list = new ArrayList<>();
+        assertEquals(3, ListStringUtil.parseInts("1 2 3", " ", list::add));
+        assertEquals(Arrays.asList(1, 2, 3), list);
+    }
+
+    public void testParseErrorOffset() {
+        assertError("1,2x,3", "delimiter expected at offset 3");
+        assertError("1,,-", "digit expected at offset 4");
+        assertError("1, abc", "digit expected at offset 3");
+        assertError("9223372036854775808", "number out of range at offset 0");
+        try {
+            ListStringUtil.toIntArray("1,2147483648");
+            fail();
+        } catch (NumberFormatException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("number out of range at offset 2"));
+        }
+    }
+
+    private static void assertError(String str, String message) {
+        try {
+            ListStringUtil.toLongArray(str);
+            fail(str);
+        } catch (NumberFormatException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith(message));
+        }
+    }
+
+    public void testJoinPrimitive() {
+        long[] longs = {0, -1, 9, 10, -99, Long.MIN_VALUE, Long.MAX_VALUE, 1234567890123L};
+        StringBuilder expected = new StringBuilder();
+        for (long value : longs) {
+            expected.append(expected.length() == 0 ? "" : "|").append(value);
+        }
+        assertEquals(expected.toString(), ListStringUtil.toString(longs, "|"));
+        assertEquals("1,-2,2147483647,-2147483648",
+                ListStringUtil.toString(new int[]{1, -2, Integer.MAX_VALUE, Integer.MIN_VALUE}));
+        assertEquals("", ListStringUtil.toString(new long[0]));
+    }
+
+    private static List<String> stream(String str, String delimiter, boolean trim, boolean ignoreEmpty,
+                                       int bufferSize) throws IOException {
+        List<String> list = new ArrayList<>();
+        long count = ListStringUtil.split(new StringReader(str), delimiter, trim, ignoreEmpty, bufferSize,
+                part -> list.add(part.toString()));
+        assertEquals(list.size(), count);
+        return list;
+    }
+
+    public void testStreamingSplitSameAsSplit() throws IOException {
+        String[] inputs = {" a , ,b,, c ", "", ",", "abc", "x::y::::z::", "::", "12345,678::9::"};
+        String[] delimiters = {",", "::"};
+        for (String input : inputs) {
+            for (String delimiter : delimiters) {
+                for (int mask = 0; mask < 4; mask++) {
+                    boolean trim = (mask & 1) != 0;
+                    boolean ignoreEmpty = (mask & 2) != 0;
+                    List<String> expected = ListStringUtil.split(input, delimiter, trim, ignoreEmpty, 0);
+                    for (int bufferSize = 16; bufferSize <= 64; bufferSize *= 2) {
+                        assertEquals(input + "/" + bufferSize, expected,
+                                stream(input, delimiter, trim, ignoreEmpty, bufferSize));
+                    }
+                }
+            }
+        }
+    }
+
+    public void testStreamingSplitLargePayload() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 100000; i++) {
+            sb.append(i).append("||");
+        }
+        long[] sum = new long[1];
+        long count = ListStringUtil.split(new StringReader(sb.toString()), "||", false, true, 16,
+                part -> sum[0] += Long.parseLong(part.toString()));
+        assertEquals(100000, count);
+        assertEquals(99999L * 100000 / 2, sum[0]);
+    }
+
+    public void testStreamingSplitChannel() throws IOException {
+        String str = "张三,李四,,王五";
+        List<String> list = new ArrayList<>();
+        ListStringUtil.split(Channels.newChannel(new ByteArrayInputStream(str.getBytes(StandardCharsets.UTF_8))),
+                StandardCharsets.UTF_8, ",", false, true, 8, part -> list.add(part.toString()));
+        assertEquals(Arrays.asList("张三", "李四", "王五"), list);
+    }
+
+    public void testStreamingSplitTokenTooLong() {
+        try {
+            stream("ab,abcdefghij,c", ",", false, false, 8);
+            fail();
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("token at offset 3"));
+        }
+    }
+
+    public void testStreamingJoin() throws IOException {
+        StringWriter writer = new StringWriter();
+        ListStringUtil.join(Arrays.asList("a", new StringBuilder("b"), 3L), ",", writer);
+        assertEquals("a,b,3", writer.toString());
+        StringBuilder sb = new StringBuilder();
+        ListStringUtil.join(new ArrayList<String>(), ",", sb);
+        assertEquals("", sb.toString());
+        List<String> parts = Arrays.asList("x", "", "y");
+        ListStringUtil.join(parts.iterator(), "::", sb);
+        assertEquals(String.join("::", parts), sb.toString());
+    }
+}
@@ -0,0 +1,16 @@
+package com.zyy.tools;
+
+/**
+ * BeanMapUtilsTest 中由子加载器单独加载的Bean，独立成类以便重新定义
+ */
+public class PluginBean {
+    private String name;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
@@ -0,0 +1,149 @@
+package com.zyy.tools;
+
+import com.zyy.tools.util.QRCodeBatch;
+import com.zyy.tools.util.QRCodeOptions;
+import junit.framework.TestCase;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * QRCodeBatch 批量生成测试
+ */
+public class QRCodeBatchTest extends TestCase {
+
+    private static final QRCodeOptions OPTIONS = QRCodeOptions.defaults().withLogo(null, false).withSize(120)
+            .withImageType(BufferedImage.TYPE_BYTE_BINARY);
+
+    private static Map.Entry<String, String> item(String content, String name) {
+        return new AbstractMap.SimpleEntry<>(content, name);
+    }
+
+    public void testDirectory() throws Exception {
+        Path dir = Files.createTempDirectory("qr-batch");
+        List<Map.Entry<String, String>> items = Arrays.asList(item("a", "shop"), item("b", "shop.png"),
+                item("c", null), item("d", "../x/y"), item("e", "SHOP"), item("f", " "));
+        List<String> names = new ArrayList<>();
+        QRCodeBatch batch = new QRCodeBatch(OPTIONS, 2, 3, (index, name) -> {
+            assertEquals(names.size(), index);
+            names.add(name);
+        });
+        assertEquals(6, batch.writeToDirectory(items.stream(), dir));
+        assertEquals(Arrays.asList("shop.png", "shop-2.png", "00000002.png", "_._x_y.png", "SHOP-3.png",
+                "00000005.png"), names);
+        for (int i = 0; i < names.size(); i++) {
+            File file = dir.resolve(names.get(i)).toFile();
+            assertEquals(items.get(i).getKey(), QRCodeUtilsTest.decode(ImageIO.read(file)));
+            file.delete();
+        }
+        dir.toFile().delete();
+    }
+
+    /**
+     * 给定名称与序号名称互相重名：序号名称不保存，仍能按顺序去重
+     */
+    public void testNumberedNameCollisions() throws Exception {
+        Path dir = Files.createTempDirectory("qr-batch");
+        List<Map.Entry<String, String>> items = Arrays.asList(item("a", null), item("b", "00000000"),
+                item("c", "00000003.png"), item("d", ""), item("e", "00000001"), item("f", null));
+        List<String> names = new ArrayList<>();
+        new QRCodeBatch(OPTIONS, 2, 3, (index, name) -> names.add(name)).writeToDirectory(items.stream(), dir);
+        assertEquals(Arrays.asList("00000000.png", "00000000-2.png", "00000003.png", "00000003-2.png",
+                "00000001.png", "00000005.png"), names);
+        for (String name : names) {
+            dir.resolve(name).toFile().delete();
+        }
+        dir.toFile().delete();
+    }
+
+    public void testZipInInputOrder() throws Exception {
+        List<Map.Entry<String, String>> items = IntStream.range(0, 40)
+                .mapToObj(i -> item("content-" + i, "code-" + (39 - i))).collect(Collectors.toList());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(40, new QRCodeBatch(OPTIONS, 4, 8, null).writeToZip(items.iterator(), out));
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            ZipEntry entry;
+            int i = 0;
+            while ((entry = zip.getNextEntry()) != null) {
+                assertEquals("code-" + (39 - i) + ".png", entry.getName());
+                ByteArrayOutputStream png = new ByteArrayOutputStream();
+                byte[] buffer = new byte[4096];
+                int read;
+                while ((read = zip.read(buffer)) > 0) {
+                    png.write(buffer, 0, read);
+                }
+                BufferedImage image = ImageIO.read(new ByteArrayInputStream(png.toByteArray()));
+                assertEquals("content-" + i, QRCodeUtilsTest.decode(image));
+                i++;
+            }
+            assertEquals(40, i);
+        }
+    }
+
+    public void testBackpressure() throws Exception {
+        int maxInFlight = 3;
+        AtomicInteger written = new AtomicInteger();
+        int[] produced = new int[1];
+        Iterator<Map.Entry<String, String>> items = new Iterator<Map.Entry<String, String>>() {
+            @Override
+            public boolean hasNext() {
+                return produced[0] < 100;
+            }
+
+            @Override
+            public Map.Entry<String, String> next() {
+                assertTrue(produced[0] - written.get() <= maxInFlight);
+                return item("bp-" + produced[0]++, null);
+            }
+        };
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new QRCodeBatch(OPTIONS, 2, maxInFlight, (index, name) -> {
+            sleep(1);
+            written.incrementAndGet();
+        }).writeToZip(items, out);
+        assertEquals(100, written.get());
+    }
+
+    public void testFailureStopsBatch() throws Exception {
+        char[] tooLong = new char[8000];
+        Arrays.fill(tooLong, 'x');
+        List<Map.Entry<String, String>> items = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            items.add(item(i == 5 ? new String(tooLong) : "ok-" + i, null));
+        }
+        AtomicInteger written = new AtomicInteger();
+        try {
+            new QRCodeBatch(OPTIONS, 2, 4, (index, name) -> written.incrementAndGet())
+                    .writeToZip(items.iterator(), new ByteArrayOutputStream());
+            fail();
+        } catch (IOException e) {
+            assertNotNull(e.getCause());
+        }
+        assertEquals(5, written.get());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
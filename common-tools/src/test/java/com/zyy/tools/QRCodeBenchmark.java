@@ -0,0 +1,123 @@
+package com.zyy.tools;
+
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import com.zyy.tools.util.QRCodeLogo;
+import com.zyy.tools.util.QRCodeOptions;
+import com.zyy.tools.util.QRCodeUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+
+/**
+ * QRCodeUtils 耗时、内存对比：
+ * 原先每次解码LOGO与缓存贴图的批量生成；逐像素setRGB与直接写raster的渲染，以及1位图片的像素内存；
+ * ImageIO输出PNG与直接编码1位PNG、SVG的耗时和输出大小
+ */
+public class QRCodeBenchmark {
+
+    private static final int ROUNDS = 3;
+
+    private static final int COUNT = 200;
+
+    private static final OutputStream NULL = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    private interface Task {
+        Object run(int i) throws Exception;
+    }
+
+    public static void main(String[] args) throws Exception {
+        byte[] logo = QRCodeUtilsTest.logoPng(400, 400, true);
+        QRCodeOptions withLogo = QRCodeOptions.defaults().withLogo(QRCodeLogo.of(logo), true);
+        QRCodeOptions rgb = QRCodeOptions.defaults().withLogo(null, false);
+        QRCodeOptions binary = rgb.withImageType(BufferedImage.TYPE_BYTE_BINARY);
+        for (int round = 1; round <= ROUNDS; round++) {
+            System.out.println("round " + round);
+            time("legacy image+png", i -> ImageIO.write(QRCodeUtilsTest.legacy("content-" + i, logo, true),
+                    "PNG", NULL));
+            time("cached logo image+png", i -> {
+                QRCodeUtils.encode("content-" + i, NULL, withLogo);
+                return null;
+            });
+            time("setRGB render", i -> QRCodeUtilsTest.setRgb("content-" + i, 500, 1, ErrorCorrectionLevel.H));
+            time("raster RGB render", i -> QRCodeUtils.createImage("content-" + i, rgb));
+            time("raster binary render", i -> QRCodeUtils.createImage("content-" + i, binary));
+        }
+        System.out.println("output stage");
+        for (int round = 1; round <= ROUNDS; round++) {
+            System.out.println("round " + round);
+            time("ImageIO RGB png", i -> ImageIO.write(QRCodeUtils.createImage("content-" + i, rgb), "PNG", NULL));
+            time("ImageIO binary png", i -> ImageIO.write(QRCodeUtils.createImage("content-" + i, binary),
+                    "PNG", NULL));
+            for (int level : new int[]{1, 6, 9}) {
+                time("fast png level " + level, i -> {
+                    QRCodeUtils.writePng("content-" + i, NULL, rgb, level);
+                    return null;
+                });
+            }
+            time("svg", i -> {
+                QRCodeUtils.writeSvg("content-" + i, NULL, rgb);
+                return null;
+            });
+        }
+        System.out.println("output size");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(QRCodeUtils.createImage("content", rgb), "PNG", out);
+        size("ImageIO RGB png", out);
+        ImageIO.write(QRCodeUtils.createImage("content", binary), "PNG", out);
+        size("ImageIO binary png", out);
+        for (int level : new int[]{1, 6, 9}) {
+            QRCodeUtils.writePng("content", out, rgb, level);
+            size("fast png level " + level, out);
+        }
+        QRCodeUtils.writeSvg("content", out, rgb);
+        size("svg", out);
+        System.out.println("pixel memory per image");
+        memory("TYPE_INT_RGB", QRCodeUtils.createImage("content", rgb));
+        memory("TYPE_BYTE_BINARY", QRCodeUtils.createImage("content", binary));
+    }
+
+    private static Object sink;
+
+    private static void time(String name, Task task) throws Exception {
+        long allocated = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < COUNT; i++) {
+            sink = task.run(i);
+        }
+        long nanos = System.nanoTime() - start;
+        allocated = allocatedBytes() - allocated;
+        System.out.printf("  %-24s %8.1f us/op %10.1f KB/op%n", name, nanos / 1e3 / COUNT,
+                allocated / 1024.0 / COUNT);
+    }
+
+    private static void size(String name, ByteArrayOutputStream out) {
+        System.out.printf("  %-24s %10d bytes%n", name, out.size());
+        out.reset();
+    }
+
+    private static void memory(String name, BufferedImage image) {
+        DataBuffer buffer = image.getRaster().getDataBuffer();
+        long bytes = (long) buffer.getSize() * DataBuffer.getDataTypeSize(buffer.getDataType()) / 8;
+        System.out.printf("  %-24s %10.1f KB%n", name, bytes / 1024.0);
+    }
+
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+}
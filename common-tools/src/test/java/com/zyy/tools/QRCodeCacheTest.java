@@ -0,0 +1,129 @@
+package com.zyy.tools;
+
+import com.zyy.tools.util.QRCodeCache;
+import com.zyy.tools.util.QRCodeOptions;
+import com.zyy.tools.util.QRCodeUtils;
+import junit.framework.TestCase;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * QRCodeCache 缓存测试
+ */
+public class QRCodeCacheTest extends TestCase {
+
+    private static final QRCodeOptions OPTIONS = QRCodeOptions.defaults().withLogo(null, false).withSize(150)
+            .withImageType(BufferedImage.TYPE_BYTE_BINARY);
+
+    private static byte[] direct(String content, QRCodeOptions options) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        QRCodeUtils.encode(content, out, options);
+        return out.toByteArray();
+    }
+
+    private static byte[] cached(QRCodeCache cache, String content, QRCodeOptions options) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        QRCodeUtils.encode(content, out, options, cache);
+        return out.toByteArray();
+    }
+
+    public void testHitAndMiss() throws Exception {
+        QRCodeCache cache = new QRCodeCache(1 << 20);
+        byte[] expected = direct("shop", OPTIONS);
+        assertTrue(Arrays.equals(expected, cached(cache, "shop", OPTIONS)));
+        assertTrue(Arrays.equals(expected, cached(cache, "shop", OPTIONS)));
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getHits());
+        // 参数不同是不同的key
+        assertTrue(Arrays.equals(direct("shop", OPTIONS.withMargin(3)), cached(cache, "shop", OPTIONS.withMargin(3))));
+        assertEquals(2, cache.getMisses());
+        assertEquals(2, cache.size());
+        assertEquals(expected.length + direct("shop", OPTIONS.withMargin(3)).length + 16, cache.getBytes());
+
+        AtomicInteger writes = new AtomicInteger();
+        OutputStream counting = new OutputStream() {
+            @Override
+            public void write(int b) {
+                writes.incrementAndGet();
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                writes.incrementAndGet();
+            }
+        };
+        cache.encode("shop", OPTIONS, counting);
+        assertEquals(1, writes.get());
+    }
+
+    public void testEvictionByBytes() throws Exception {
+        int size = direct("item-0", OPTIONS).length + 12;
+        QRCodeCache cache = new QRCodeCache(size * 3L + size / 2);
+        for (int i = 0; i < 3; i++) {
+            cached(cache, "item-" + i, OPTIONS);
+        }
+        assertEquals(0, cache.getEvictions());
+        // 访问item-0，使item-1成为最久未使用
+        cached(cache, "item-0", OPTIONS);
+        cached(cache, "item-3", OPTIONS);
+        assertEquals(1, cache.getEvictions());
+        assertTrue(cache.getBytes() <= size * 3L + size / 2);
+        long misses = cache.getMisses();
+        cached(cache, "item-0", OPTIONS);
+        assertEquals(misses, cache.getMisses());
+        cached(cache, "item-1", OPTIONS);
+        assertEquals(misses + 1, cache.getMisses());
+
+        QRCodeCache tiny = new QRCodeCache(10);
+        cached(tiny, "too-big", OPTIONS);
+        assertEquals(0, tiny.size());
+    }
+
+    public void testSingleFlight() throws Exception {
+        QRCodeCache cache = new QRCodeCache(1 << 20);
+        QRCodeOptions options = QRCodeOptions.defaults().withLogo(null, false);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        Future<?>[] futures = new Future[threads];
+        byte[] expected = direct("hot", options);
+        for (int i = 0; i < threads; i++) {
+            futures[i] = executor.submit(() -> {
+                start.await();
+                assertTrue(Arrays.equals(expected, cached(cache, "hot", options)));
+                return null;
+            });
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertEquals(1, cache.getMisses());
+        assertEquals(threads - 1, cache.getHits());
+    }
+
+    public void testFailureNotCached() throws Exception {
+        QRCodeCache cache = new QRCodeCache(1 << 20);
+        char[] tooLong = new char[8000];
+        Arrays.fill(tooLong, 'x');
+        for (int i = 0; i < 2; i++) {
+            try {
+                cached(cache, new String(tooLong), OPTIONS);
+                fail();
+            } catch (Exception expected) {
+                // 内容超出二维码容量
+            }
+        }
+        assertEquals(2, cache.getMisses());
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,181 @@
+package com.zyy.tools;
+
+import com.zyy.tools.util.QRCodeCache;
+import com.zyy.tools.util.QRCodeLogo;
+import com.zyy.tools.util.QRCodeOptions;
+import com.zyy.tools.util.QRCodeServlet;
+import junit.framework.TestCase;
+
+import javax.imageio.ImageIO;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * QRCodeServlet 测试，请求、响应用动态代理模拟
+ */
+public class QRCodeServletTest extends TestCase {
+
+    private static final QRCodeOptions OPTIONS = QRCodeOptions.defaults().withLogo(null, false).withSize(200);
+
+    /**
+     * 记录响应的状态、头和内容
+     */
+    static class Response {
+        int status = HttpServletResponse.SC_OK;
+        String contentType;
+        int contentLength = -1;
+        final Map<String, String> headers = new HashMap<>();
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        HttpServletResponse proxy() {
+            ServletOutputStream out = new ServletOutputStream() {
+                @Override
+                public void write(int b) {
+                    body.write(b);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                    body.write(b, off, len);
+                }
+            };
+            return (HttpServletResponse) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class[]{HttpServletResponse.class}, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "setHeader":
+                                headers.put((String) args[0], (String) args[1]);
+                                return null;
+                            case "setStatus":
+                            case "sendError":
+                                status = (Integer) args[0];
+                                return null;
+                            case "setContentType":
+                                contentType = (String) args[0];
+                                return null;
+                            case "setContentLength":
+                                contentLength = (Integer) args[0];
+                                return null;
+                            case "getOutputStream":
+                                return out;
+                            default:
+                                throw new UnsupportedOperationException(method.getName());
+                        }
+                    });
+        }
+    }
+
+    static HttpServletRequest request(Map<String, String> params, Map<String, String> headers) {
+        return (HttpServletRequest) Proxy.newProxyInstance(QRCodeServletTest.class.getClassLoader(),
+                new Class[]{HttpServletRequest.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getParameter":
+                            return params.get(args[0]);
+                        case "getHeader":
+                            return headers.get(args[0]);
+                        case "getMethod":
+                            return "GET";
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private static Response get(QRCodeServlet servlet, Map<String, String> params, String ifNoneMatch)
+            throws Exception {
+        Map<String, String> headers = new HashMap<>();
+        if (ifNoneMatch != null) {
+            headers.put("If-None-Match", ifNoneMatch);
+        }
+        Response response = new Response();
+        servlet.service(request(params, headers), response.proxy());
+        return response;
+    }
+
+    private static Map<String, String> params(String... pairs) {
+        Map<String, String> params = new HashMap<>();
+        for (int i = 0; i < pairs.length; i += 2) {
+            params.put(pairs[i], pairs[i + 1]);
+        }
+        return params;
+    }
+
+    public void testRenderAndNotModified() throws Exception {
+        QRCodeCache cache = new QRCodeCache(1 << 20);
+        QRCodeServlet servlet = new QRCodeServlet(OPTIONS, cache, 86400);
+        Response first = get(servlet, params("content", "https://example.com/p/1"), null);
+        assertEquals(200, first.status);
+        assertEquals("image/png", first.contentType);
+        assertEquals(first.body.size(), first.contentLength);
+        assertEquals("public, max-age=86400, immutable", first.headers.get("Cache-Control"));
+        String etag = first.headers.get("ETag");
+        assertTrue(etag, etag.matches("\"[0-9a-f]{32}\""));
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(first.body.toByteArray()));
+        assertEquals(200, image.getWidth());
+        assertEquals("https://example.com/p/1", QRCodeUtilsTest.decode(image));
+        assertEquals(1, cache.getMisses());
+
+        // If-None-Match 命中：304，不生成，不查缓存
+        Response notModified = get(servlet, params("content", "https://example.com/p/1"), "\"other\", " + etag);
+        assertEquals(304, notModified.status);
+        assertEquals(0, notModified.body.size());
+        assertEquals(etag, notModified.headers.get("ETag"));
+        assertEquals(1, cache.getMisses());
+        assertEquals(0, cache.getHits());
+        assertEquals(304, get(servlet, params("content", "https://example.com/p/1"), "W/" + etag).status);
+        assertEquals(304, get(servlet, params("content", "https://example.com/p/1"), "*").status);
+
+        // 再次请求走缓存
+        Response second = get(servlet, params("content", "https://example.com/p/1"), "\"stale\"");
+        assertEquals(200, second.status);
+        assertEquals(etag, second.headers.get("ETag"));
+        assertEquals(1, cache.getHits());
+    }
+
+    public void testEtagDependsOnOptions() throws Exception {
+        QRCodeServlet servlet = new QRCodeServlet(OPTIONS, null, 60);
+        String base = get(servlet, params("content", "x"), null).headers.get("ETag");
+        assertEquals(base, get(servlet, params("content", "x"), null).headers.get("ETag"));
+        assertFalse(base.equals(get(servlet, params("content", "y"), null).headers.get("ETag")));
+        assertFalse(base.equals(get(servlet, params("content", "x", "size", "300"), null).headers.get("ETag")));
+        assertFalse(base.equals(get(servlet, params("content", "x", "ecc", "l"), null).headers.get("ETag")));
+        assertFalse(base.equals(get(servlet, params("content", "x", "margin", "3"), null).headers.get("ETag")));
+        assertFalse(base.equals(get(servlet, params("content", "x", "format", "svg"), null).headers.get("ETag")));
+
+        QRCodeOptions logoA = OPTIONS.withLogo(QRCodeLogo.of(QRCodeUtilsTest.logoPng(40, 40, false)), true);
+        QRCodeOptions logoB = OPTIONS.withLogo(QRCodeLogo.of(QRCodeUtilsTest.logoPng(40, 40, true)), true);
+        String a = get(new QRCodeServlet(logoA, null, 60), params("content", "x"), null).headers.get("ETag");
+        String b = get(new QRCodeServlet(logoB, null, 60), params("content", "x"), null).headers.get("ETag");
+        assertFalse(a.equals(b));
+        assertFalse(a.equals(base));
+    }
+
+    public void testSvgAndErrors() throws Exception {
+        QRCodeServlet servlet = new QRCodeServlet(OPTIONS, null, 60);
+        Response svg = get(servlet, params("content", "svg", "format", "SVG"), null);
+        assertEquals(200, svg.status);
+        assertEquals("image/svg+xml", svg.contentType);
+        assertEquals(svg.body.size(), svg.contentLength);
+        assertTrue(svg.body.toString("UTF-8").contains("<svg"));
+
+        assertEquals(400, get(servlet, params(), null).status);
+        assertEquals(400, get(servlet, params("content", "x", "size", "abc"), null).status);
+        assertEquals(400, get(servlet, params("content", "x", "size", "100000"), null).status);
+        assertEquals(400, get(servlet, params("content", "x", "ecc", "Z"), null).status);
+        assertEquals(400, get(servlet, params("content", "x", "format", "gif"), null).status);
+        char[] tooLong = new char[8000];
+        Arrays.fill(tooLong, 'x');
+        Response error = get(servlet, params("content", new String(tooLong)), null);
+        assertEquals(400, error.status);
+        // 错误响应不能被长期缓存
+        assertNull(error.headers.get("Cache-Control"));
+        assertNull(error.headers.get("ETag"));
+    }
+}
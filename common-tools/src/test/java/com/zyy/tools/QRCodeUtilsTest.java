@@ -0,0 +1,340 @@
+package com.zyy.tools;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.MultiFormatWriter;
+import com.google.zxing.client.j2se.BufferedImageLuminanceSource;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.qrcode.QRCodeReader;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import com.google.zxing.qrcode.encoder.ByteMatrix;
+import com.google.zxing.qrcode.encoder.Encoder;
+import com.zyy.tools.util.QRCodeLogo;
+import com.zyy.tools.util.QRCodeOptions;
+import com.zyy.tools.util.QRCodeUtils;
+import junit.framework.TestCase;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import javax.imageio.ImageIO;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.Map;
+
+/**
+ * QRCodeUtils 测试，结果与原先逐次解码LOGO的实现逐像素对比
+ */
+public class QRCodeUtilsTest extends TestCase {
+
+    static byte[] logoPng(int width, int height, boolean alpha) throws Exception {
+        BufferedImage logo = new BufferedImage(width, height,
+                alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = logo.createGraphics();
+        g.setColor(alpha ? new Color(200, 30, 30, 160) : Color.BLUE);
+        g.fillRect(0, 0, width, height);
+        g.setColor(Color.ORANGE);
+        g.fillOval(width / 4, height / 4, width / 2, height / 2);
+        g.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(logo, "PNG", out);
+        return out.toByteArray();
+    }
+
+    /**
+     * 原实现：每次解码LOGO，逐像素setRGB
+     */
+    static BufferedImage legacy(String content, byte[] logoPng, boolean needCompress) throws Exception {
+        Map<EncodeHintType, Object> hints = new HashMap<>();
+        hints.put(EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.H);
+        hints.put(EncodeHintType.CHARACTER_SET, "utf-8");
+        hints.put(EncodeHintType.MARGIN, 1);
+        BitMatrix bitMatrix = new MultiFormatWriter().encode(content, BarcodeFormat.QR_CODE, 500, 500, hints);
+        BufferedImage image = new BufferedImage(500, 500, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < 500; x++) {
+            for (int y = 0; y < 500; y++) {
+                image.setRGB(x, y, bitMatrix.get(x, y) ? 0xFF000000 : 0xFFFFFFFF);
+            }
+        }
+        Image src = ImageIO.read(new ByteArrayInputStream(logoPng));
+        int width = src.getWidth(null);
+        int height = src.getHeight(null);
+        if (needCompress) {
+            width = Math.min(width, 100);
+            height = Math.min(height, 100);
+            src = src.getScaledInstance(width, height, Image.SCALE_SMOOTH);
+        }
+        Graphics2D graph = image.createGraphics();
+        int x = (500 - width) / 2;
+        int y = (500 - height) / 2;
+        graph.fillOval(x, y, width, height);
+        graph.drawImage(src, x, y, width, height, null);
+        graph.dispose();
+        return image;
+    }
+
+    static BufferedImage encode(String content, QRCodeLogo logo, boolean needCompress) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        QRCodeUtils.encode(content, out, logo, needCompress);
+        return ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    static String decode(BufferedImage image) throws Exception {
+        return new QRCodeReader().decode(new BinaryBitmap(new HybridBinarizer(
+                new BufferedImageLuminanceSource(image)))).getText();
+    }
+
+    static void assertSameImage(BufferedImage expected, BufferedImage actual, int tolerance) {
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                int e = expected.getRGB(x, y);
+                int a = actual.getRGB(x, y);
+                for (int shift = 0; shift < 24; shift += 8) {
+                    int diff = Math.abs(((e >> shift) & 0xFF) - ((a >> shift) & 0xFF));
+                    if (diff > tolerance) {
+                        fail("pixel (" + x + "," + y + ") expected " + Integer.toHexString(e)
+                                + " but was " + Integer.toHexString(a));
+                    }
+                }
+            }
+        }
+    }
+
+    public void testSameAsLegacy() throws Exception {
+        String content = "https://example.com/order?id=1234567890";
+        byte[] opaque = logoPng(160, 120, false);
+        byte[] translucent = logoPng(80, 80, true);
+        QRCodeLogo opaqueLogo = QRCodeLogo.of(opaque);
+        for (boolean compress : new boolean[]{true, false}) {
+            assertSameImage(legacy(content, opaque, compress), encode(content, opaqueLogo, compress), 0);
+            // 半透明LOGO先与白色圆底合成，舍入误差允许1
+            assertSameImage(legacy(content, translucent, compress),
+                    encode(content, QRCodeLogo.of(translucent), compress), 1);
+        }
+        // 再次生成走缓存，结果不变
+        assertSameImage(legacy(content, opaque, true), encode(content, QRCodeLogo.of(opaque), true), 0);
+        assertEquals(opaqueLogo, QRCodeLogo.of(opaque.clone()));
+        assertEquals(opaqueLogo.hashCode(), QRCodeLogo.of(opaque.clone()).hashCode());
+        assertFalse(opaqueLogo.equals(QRCodeLogo.of(translucent)));
+    }
+
+    public void testDecodable() throws Exception {
+        QRCodeLogo logo = QRCodeLogo.of(logoPng(300, 300, false));
+        for (String content : new String[]{"a", "中文内容", "https://example.com/?q=" + System.nanoTime()}) {
+            assertEquals(content, decode(encode(content, logo, true)));
+            assertEquals(content, decode(encode(content, null, true)));
+        }
+    }
+
+    public void testPathLogo() throws Exception {
+        Path dir = Files.createTempDirectory("qr");
+        Path logoFile = dir.resolve("logo.png");
+        Files.write(logoFile, logoPng(90, 90, false));
+        String name = QRCodeUtils.encode("path-logo", dir.toString(), QRCodeLogo.of(logoFile.toString()), true);
+        File file = dir.resolve(name).toFile();
+        assertEquals("path-logo", decode(ImageIO.read(file)));
+        // 文件修改后重新取的实例与原实例不同
+        QRCodeLogo before = QRCodeLogo.of(logoFile);
+        Files.write(logoFile, logoPng(60, 60, true));
+        assertFalse(before.equals(QRCodeLogo.of(logoFile)));
+        QRCodeUtils.releaseCanvas();
+        file.delete();
+        logoFile.toFile().delete();
+        dir.toFile().delete();
+    }
+
+    /**
+     * 默认尺寸（500像素RGB）连续生成时复用同一块画布：释放画布后的生成比复用时多分配约1MB
+     * 默认LOGO资源不在测试环境中，去掉LOGO，画布相同
+     */
+    public void testDefaultCanvasReused() throws Exception {
+        QRCodeOptions options = QRCodeOptions.defaults().withLogo(null, false);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(1 << 16);
+        for (int i = 0; i < 5; i++) {
+            out.reset();
+            QRCodeUtils.encode("canvas-" + i, out, options);
+        }
+        long reused = Long.MAX_VALUE;
+        long fresh = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            out.reset();
+            long start = allocatedBytes();
+            QRCodeUtils.encode("canvas", out, options);
+            reused = Math.min(reused, allocatedBytes() - start);
+            QRCodeUtils.releaseCanvas();
+            out.reset();
+            start = allocatedBytes();
+            QRCodeUtils.encode("canvas", out, options);
+            fresh = Math.min(fresh, allocatedBytes() - start);
+        }
+        QRCodeUtils.releaseCanvas();
+        assertTrue(reused + " / " + fresh, fresh - reused >= 500 * 500 * 4 * 9 / 10);
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * 原先逐像素setRGB的渲染方式
+     */
+    static BufferedImage setRgb(String content, int size, int margin, ErrorCorrectionLevel level) throws Exception {
+        Map<EncodeHintType, Object> hints = new HashMap<>();
+        hints.put(EncodeHintType.ERROR_CORRECTION, level);
+        hints.put(EncodeHintType.CHARACTER_SET, "utf-8");
+        hints.put(EncodeHintType.MARGIN, margin);
+        BitMatrix bitMatrix = new MultiFormatWriter().encode(content, BarcodeFormat.QR_CODE, size, size, hints);
+        BufferedImage image = new BufferedImage(bitMatrix.getWidth(), bitMatrix.getHeight(),
+                BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < bitMatrix.getWidth(); x++) {
+            for (int y = 0; y < bitMatrix.getHeight(); y++) {
+                image.setRGB(x, y, bitMatrix.get(x, y) ? 0xFF000000 : 0xFFFFFFFF);
+            }
+        }
+        return image;
+    }
+
+    public void testRasterSameAsSetRgb() throws Exception {
+        int[][] cases = {{500, 1}, {301, 4}, {97, 0}, {10, 2}};
+        for (ErrorCorrectionLevel level : ErrorCorrectionLevel.values()) {
+            for (int[] c : cases) {
+                QRCodeOptions options = QRCodeOptions.defaults().withLogo(null, false).withSize(c[0])
+                        .withMargin(c[1]).withErrorCorrection(level);
+                String content = "raster-" + level + "-" + c[0];
+                BufferedImage expected = setRgb(content, c[0], c[1], level);
+                assertSameImage(expected, QRCodeUtils.createImage(content, options), 0);
+                BufferedImage binary = QRCodeUtils.createImage(content,
+                        options.withImageType(BufferedImage.TYPE_BYTE_BINARY));
+                assertEquals(BufferedImage.TYPE_BYTE_BINARY, binary.getType());
+                assertSameImage(expected, binary, 0);
+            }
+        }
+    }
+
+    public void testOptions() throws Exception {
+        QRCodeOptions options = QRCodeOptions.defaults().withLogo(null, false).withSize(211)
+                .withImageType(BufferedImage.TYPE_BYTE_BINARY);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        QRCodeUtils.encode("binary", out, options);
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(211, image.getWidth());
+        assertEquals("binary", decode(image));
+        // 复用画布的多次生成互不影响
+        out.reset();
+        QRCodeUtils.encode("binary-2", out, options);
+        assertEquals("binary-2", decode(ImageIO.read(new ByteArrayInputStream(out.toByteArray()))));
+
+        assertEquals(options, QRCodeOptions.defaults().withSize(211).withLogo(null, false)
+                .withImageType(BufferedImage.TYPE_BYTE_BINARY));
+        assertFalse(options.equals(options.withMargin(2)));
+        try {
+            QRCodeUtils.createImage("x", QRCodeOptions.defaults().withImageType(BufferedImage.TYPE_BYTE_BINARY));
+            fail();
+        } catch (IllegalArgumentException expected) {
+            // 1位图片不能带LOGO
+        }
+        try {
+            options.withImageType(BufferedImage.TYPE_3BYTE_BGR);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            // 不支持的图片类型
+        }
+    }
+
+    public void testScaledLogo() throws Exception {
+        QRCodeOptions options = QRCodeOptions.defaults().withSize(300)
+                .withLogo(QRCodeLogo.of(logoPng(200, 200, false)), true);
+        BufferedImage image = QRCodeUtils.createImage("scaled-logo", options);
+        // LOGO按尺寸等比例压缩到60像素，中心为LOGO颜色
+        assertEquals(Color.ORANGE.getRGB(), image.getRGB(150, 150));
+        assertEquals(Color.BLUE.getRGB(), image.getRGB(150 - 28, 150));
+        assertEquals("scaled-logo", decode(image));
+    }
+
+    public void testFastPngSameAsImage() throws Exception {
+        int[][] cases = {{500, 1}, {301, 4}, {33, 0}};
+        for (int[] c : cases) {
+            QRCodeOptions options = QRCodeOptions.defaults().withLogo(null, false).withSize(c[0]).withMargin(c[1]);
+            String content = "fast-png-" + c[0];
+            BufferedImage expected = QRCodeUtils.createImage(content, options);
+            for (int level : new int[]{-1, 0, 1, 9}) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                QRCodeUtils.writePng(content, out, options, level);
+                BufferedImage actual = ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+                assertEquals(1, actual.getColorModel().getPixelSize());
+                assertSameImage(expected, actual, 0);
+            }
+        }
+        try {
+            QRCodeUtils.writePng("x", new ByteArrayOutputStream(), QRCodeOptions.defaults(), 6);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            // 1位PNG不能带LOGO
+        }
+    }
+
+    public void testSvg() throws Exception {
+        QRCodeOptions options = QRCodeOptions.defaults().withLogo(null, false).withMargin(2)
+                .withErrorCorrection(ErrorCorrectionLevel.M).withSize(320);
+        String content = "svg <&> 内容";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        QRCodeUtils.writeSvg(content, out, options);
+        Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new ByteArrayInputStream(out.toByteArray()));
+        Element svg = doc.getDocumentElement();
+        assertEquals("320", svg.getAttribute("width"));
+
+        Map<EncodeHintType, Object> hints = new HashMap<>();
+        hints.put(EncodeHintType.CHARACTER_SET, "utf-8");
+        ByteMatrix matrix = Encoder.encode(content, ErrorCorrectionLevel.M, hints).getMatrix();
+        int modules = matrix.getWidth() + 4;
+        assertEquals("0 0 " + modules + " " + modules, svg.getAttribute("viewBox"));
+        boolean[][] black = new boolean[modules][modules];
+        String d = ((Element) svg.getElementsByTagName("path").item(0)).getAttribute("d");
+        Matcher m = Pattern.compile("M(\\d+) (\\d+)h(\\d+)v1h-(\\d+)z").matcher(d);
+        int end = 0;
+        while (m.find()) {
+            assertEquals(end, m.start());
+            end = m.end();
+            int x = Integer.parseInt(m.group(1));
+            int y = Integer.parseInt(m.group(2));
+            for (int i = 0; i < Integer.parseInt(m.group(3)); i++) {
+                black[y][x + i] = true;
+            }
+        }
+        assertEquals(d.length(), end);
+        for (int y = 0; y < modules; y++) {
+            for (int x = 0; x < modules; x++) {
+                boolean inside = x >= 2 && y >= 2 && x < modules - 2 && y < modules - 2;
+                assertEquals(inside && matrix.get(x - 2, y - 2) == 1, black[y][x]);
+            }
+        }
+    }
+
+    public void testFileNameIsPng() throws Exception {
+        Path dir = Files.createTempDirectory("qr");
+        String name = QRCodeUtils.encode("png-name", dir.toString(), QRCodeOptions.defaults().withLogo(null, false));
+        assertTrue(name, name.endsWith(".png"));
+        File file = dir.resolve(name).toFile();
+        assertEquals("png-name", decode(ImageIO.read(file)));
+        file.delete();
+        dir.toFile().delete();
+    }
+}
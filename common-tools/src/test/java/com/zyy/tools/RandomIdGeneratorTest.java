@@ -0,0 +1,51 @@
+package com.zyy.tools;
+
+import com.zyy.tools.util.RandomIdGenerator;
+import com.zyy.tools.util.UuidUtil;
+import junit.framework.TestCase;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+public class RandomIdGeneratorTest extends TestCase {
+
+    public void testUuid32Format() {
+        for (int i = 0; i < 1000; i++) {
+            String id = UuidUtil.uuid32();
+            assertEquals(32, id.length());
+            assertTrue(id.matches("[0-9a-f]{32}"));
+            // 能还原为合法的v4 UUID
+            UUID uuid = UUID.fromString(id.replaceFirst("(.{8})(.{4})(.{4})(.{4})(.{12})", "$1-$2-$3-$4-$5"));
+            assertEquals(4, uuid.version());
+            assertEquals(2, uuid.variant());
+        }
+    }
+
+    public void testUuid16AndUuid8Format() {
+        for (int i = 0; i < 1000; i++) {
+            String id16 = UuidUtil.uuid16();
+            assertTrue(id16.matches("[0-9a-f]{12}4[0-9a-f]{3}"));
+            assertTrue(UuidUtil.uuid8().matches("[0-9a-f]{8}"));
+        }
+    }
+
+    public void testFastGenerator() {
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(ids.add(RandomIdGenerator.fast().uuid(32)));
+        }
+        char[] dest = new char[40];
+        RandomIdGenerator.fast().uuid(dest, 4, 32);
+        assertTrue(new String(dest, 4, 32).matches("[0-9a-f]{12}4[0-9a-f]{3}[89ab][0-9a-f]{15}"));
+    }
+
+    public void testIllegalLength() {
+        try {
+            RandomIdGenerator.secure().uuid(33);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            // ok
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.zyy.tools;
+
+import com.zyy.tools.util.TimeOrderedIdGenerator;
+import com.zyy.tools.util.UuidUtil;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TimeOrderedIdTest extends TestCase {
+
+    private static final int THREADS = 16;
+
+    private static final int PER_THREAD = 20000;
+
+    public void testSnowflakeConcurrentOrderedAndUnique() throws Exception {
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(7);
+        long[][] results = new long[THREADS][PER_THREAD];
+        runConcurrently(index -> {
+            for (int i = 0; i < PER_THREAD; i++) {
+                results[index][i] = generator.nextId();
+            }
+        });
+        Set<Long> all = new HashSet<>(THREADS * PER_THREAD * 2);
+        for (long[] ids : results) {
+            for (int i = 0; i < ids.length; i++) {
+                if (i > 0) {
+                    assertTrue(ids[i] > ids[i - 1]);
+                }
+                assertEquals(7, (ids[i] >>> 12) & 1023);
+                assertTrue(all.add(ids[i]));
+            }
+        }
+    }
+
+    public void testUuid7ConcurrentOrderedAndUnique() throws Exception {
+        String[][] results = new String[THREADS][PER_THREAD / 4];
+        runConcurrently(index -> {
+            for (int i = 0; i < results[index].length; i++) {
+                results[index][i] = UuidUtil.uuid7();
+            }
+        });
+        Set<String> all = new HashSet<>();
+        for (String[] ids : results) {
+            for (int i = 0; i < ids.length; i++) {
+                if (i > 0) {
+                    assertTrue(ids[i].compareTo(ids[i - 1]) > 0);
+                }
+                assertTrue(all.add(ids[i]));
+            }
+        }
+        String id = results[0][0];
+        UUID uuid = UUID.fromString(id.replaceFirst("(.{8})(.{4})(.{4})(.{4})(.{12})", "$1-$2-$3-$4-$5"));
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        long millis = Long.parseLong(id.substring(0, 12), 16);
+        assertTrue(Math.abs(System.currentTimeMillis() - millis) < 60000);
+    }
+
+    public void testClockBackwardsWithinTolerance() {
+        AtomicLong clock = new AtomicLong(TimeOrderedIdGenerator.DEFAULT_EPOCH + 10000);
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(1, TimeOrderedIdGenerator.DEFAULT_EPOCH, 100, clock::get);
+        long first = generator.nextId();
+        clock.addAndGet(-50);
+        long second = generator.nextId();
+        assertTrue(second > first);
+        clock.addAndGet(-200);
+        try {
+            generator.nextId();
+            fail();
+        } catch (IllegalStateException expected) {
+            // ok
+        }
+    }
+
+    public void testSequenceOverflowBorrowsNextMillis() {
+        AtomicLong clock = new AtomicLong(TimeOrderedIdGenerator.DEFAULT_EPOCH + 10000);
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(1, TimeOrderedIdGenerator.DEFAULT_EPOCH, 2, clock::get);
+        long prev = -1;
+        // 3毫秒的额度：当前毫秒 + 借用2毫秒
+        for (int i = 0; i < 3 * 4096; i++) {
+            long id = generator.nextId();
+            assertTrue(id > prev);
+            prev = id;
+        }
+        assertEquals(10002, prev >>> 22);
+        assertEquals(4095, prev & 4095);
+    }
+
+    private interface Task {
+        void run(int index);
+    }
+
+    private static void runConcurrently(Task task) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int index = t;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                task.run(index);
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+}